@@ -0,0 +1,74 @@
+package com.example.studentmanagerapp;
+
+import android.content.Context;
+import android.database.Cursor;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+// Seeded databases of the benchmark sizes, each in its own file so the app's
+// real database is never touched. A file that already holds the right number
+// of buddies is reused, which keeps repeat runs from paying for the seeding.
+public class BenchmarkDatabases {
+
+    public static final String USERNAME = "benchmark";
+    private static final String PASSWORD = "benchmark";
+
+    public static class Seeded {
+        public final DatabaseHelper db;
+        public final long userId;
+        public final int size;
+
+        Seeded(DatabaseHelper db, long userId, int size) {
+            this.db = db;
+            this.userId = userId;
+            this.size = size;
+        }
+    }
+
+    private static final Map<Integer, Seeded> opened = new HashMap<>();
+
+    public static synchronized Seeded open(Context context, int size) {
+        Seeded seeded = opened.get(size);
+        if (seeded != null) return seeded;
+
+        String name = "benchmark-" + size + ".db";
+        // Seeded rows have no photos, but keep the app's photo directory out of reach regardless
+        PhotoStore photoStore = new PhotoStore(new File(context.getCacheDir(), "benchmark-photos"));
+        DatabaseHelper db = new DatabaseHelper(context, name, photoStore);
+        long userId = userId(db);
+        if (userId < 0 || db.getBuddyCount(userId) != size) {
+            db.close();
+            context.deleteDatabase(name);
+            db = new DatabaseHelper(context, name, photoStore);
+            db.insertUser(USERNAME, PASSWORD);
+            userId = userId(db);
+            seed(db, userId, size, SyntheticBuddies.SEED);
+        }
+
+        seeded = new Seeded(db, userId, size);
+        opened.put(size, seeded);
+        return seeded;
+    }
+
+    // Same batched path as the CSV import
+    public static void seed(DatabaseHelper db, long userId, int count, long seed) {
+        SyntheticBuddies buddies = new SyntheticBuddies(seed);
+        try (DatabaseHelper.BuddyInserter inserter = db.openBuddyInserter(userId)) {
+            for (int i = 0; i < count; i++) {
+                if (i % BuddyImporter.BATCH_SIZE == 0) {
+                    if (i > 0) inserter.commitBatch();
+                    inserter.beginBatch();
+                }
+                inserter.insert(buddies.next());
+            }
+            if (count > 0) inserter.commitBatch();
+        }
+    }
+
+    private static long userId(DatabaseHelper db) {
+        try (Cursor cursor = db.checkLoginAndGetId(USERNAME, PASSWORD)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : -1;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Keyset paging over names that may be missing, and the index that serves it
+@RunWith(AndroidJUnit4.class)
+public class BuddyPageQueryTest {
+
+    private static final String DATABASE_NAME = "buddy-page-query.db";
+
+    private Context context;
+    private File photoDir;
+    private DatabaseHelper db;
+    private long userId;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        photoDir = new File(context.getCacheDir(), "buddy-page-query-photos");
+        db = new DatabaseHelper(context, DATABASE_NAME, new PhotoStore(photoDir));
+
+        assertTrue(db.insertUser("pager", "secret"));
+        try (Cursor cursor = db.checkLoginAndGetId("pager", "secret")) {
+            assertTrue(cursor.moveToFirst());
+            userId = cursor.getLong(0);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null) db.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void pagesVisitEveryRowOnceWhenNamesAreMissing() {
+        String[] names = {"Bob", null, "Alice", "", null, "Alice", "Cara"};
+        for (String name : names) {
+            assertTrue(db.insertBuddy(name, "Female", "2000-01-01", "+60123", null, null, userId));
+        }
+
+        BuddyFilter all = new BuddyFilter("", 0);
+        List<BuddyRow> seen = new ArrayList<>();
+        BuddyRow after = null;
+        while (true) {
+            List<BuddyRow> page = BuddyRow.readAll(db.getBuddyPage(userId, all, after, 2, null));
+            if (page.isEmpty()) break;
+            seen.addAll(page);
+            after = page.get(page.size() - 1);
+        }
+
+        assertEquals(names.length, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            String previous = seen.get(i - 1).name == null ? "" : seen.get(i - 1).name;
+            String current = seen.get(i).name == null ? "" : seen.get(i).name;
+            int order = previous.compareTo(current);
+            assertTrue(order < 0 || (order == 0 && seen.get(i - 1).id < seen.get(i).id));
+        }
+    }
+
+    @Test
+    public void pageSeekUsesTheNameIndex() {
+        String plan = queryPlan("SELECT " + DatabaseHelper.COL_BUDDY_ID + " FROM " + DatabaseHelper.TABLE_BUDDIES +
+                " WHERE " + DatabaseHelper.COL_BUDDY_USER_ID + "=? AND (ifnull(" + DatabaseHelper.COL_BUDDY_NAME + ",'')>?" +
+                " OR (ifnull(" + DatabaseHelper.COL_BUDDY_NAME + ",'')=? AND " + DatabaseHelper.COL_BUDDY_ID + ">?))" +
+                " ORDER BY ifnull(" + DatabaseHelper.COL_BUDDY_NAME + ",'') ASC, " + DatabaseHelper.COL_BUDDY_ID + " ASC LIMIT 50",
+                String.valueOf(userId), "", "", "0");
+
+        assertTrue(plan, plan.contains("idx_buddies_user_name"));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    private String queryPlan(String sql, String... args) {
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.getReadableDatabase().rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detail)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.studentmanagerapp;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// One ChartView frame per renderer: the renderer's draw() into a software
+// canvas at a phone-sized chart, after the same downsample and layout
+// ChartView does on a size change. Layout of a long line series is measured
+// separately since it only runs when the data or size changes.
+@RunWith(AndroidJUnit4.class)
+public class ChartDrawBenchmark {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 600;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void drawBarChart() {
+        ChartSeries months = new ChartSeries(12);
+        int[] counts = monthCounts(SyntheticBuddies.SIZES[1]);
+        for (int i = 0; i < 12; i++) {
+            months.add(counts[i], "M" + (i + 1), 0xFF4CAF50);
+        }
+        drawFrames(new BarChartRenderer(0xFF4CAF50, 0xFF81C784), months, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void drawDonutChart() {
+        ChartSeries genders = new ChartSeries(2);
+        genders.add(5120, "Male", 0xFF2196F3);
+        genders.add(4880, "Female", 0xFFE91E63);
+        drawFrames(new DonutChartRenderer(), genders, HEIGHT, HEIGHT);
+    }
+
+    @Test
+    public void drawLineChart() {
+        drawFrames(new LineChartRenderer(0xFF4CAF50), longSeries(SyntheticBuddies.SIZES[2]), WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void layoutLineChart() {
+        ChartSeries source = longSeries(SyntheticBuddies.SIZES[2]);
+        ChartSeries drawn = new ChartSeries();
+        LineChartRenderer renderer = new LineChartRenderer(0xFF4CAF50);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            SeriesDownsampler.downsample(source, renderer.maxPoints(WIDTH), renderer.getDownsampleMode(), drawn);
+            renderer.layout(drawn, WIDTH, HEIGHT);
+        }
+    }
+
+    private void drawFrames(ChartRenderer renderer, ChartSeries source, int width, int height) {
+        ChartSeries drawn = new ChartSeries();
+        SeriesDownsampler.downsample(source, renderer.maxPoints(width), renderer.getDownsampleMode(), drawn);
+        renderer.layout(drawn, width, height);
+
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            canvas.drawColor(0xFFFFFFFF);
+            renderer.draw(canvas, drawn, 1f);
+        }
+        bitmap.recycle();
+    }
+
+    private static int[] monthCounts(int size) {
+        int[] counts = new int[12];
+        for (BuddyImportRecord record : SyntheticBuddies.generate(size, SyntheticBuddies.SEED)) {
+            int month = BirthDates.monthOf(record.dob);
+            if (month > 0) counts[month - 1]++;
+        }
+        return counts;
+    }
+
+    private static ChartSeries longSeries(int size) {
+        List<BuddyImportRecord> records = SyntheticBuddies.generate(size, SyntheticBuddies.SEED);
+        ChartSeries series = new ChartSeries(size);
+        for (BuddyImportRecord record : records) {
+            series.add(BirthDates.dayOf(record.dob), null, 0xFF4CAF50);
+        }
+        return series;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.studentmanagerapp;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+// The queries behind the main and Reports screens against the seeded
+// 100 / 10k / 100k databases. Every cursor is walked to the end so the
+// numbers include filling the CursorWindow, not just preparing the query.
+//   ./gradlew :app:connectedAndroidTest -PtestBuildType=benchmark
+@RunWith(Parameterized.class)
+public class DatabaseBenchmark {
+
+    @Parameterized.Parameters(name = "size={0}")
+    public static Collection<Object[]> sizes() {
+        List<Object[]> sizes = new ArrayList<>();
+        for (int size : SyntheticBuddies.SIZES) {
+            sizes.add(new Object[]{size});
+        }
+        return sizes;
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int size;
+    private DatabaseHelper db;
+    private long userId;
+
+    public DatabaseBenchmark(int size) {
+        this.size = size;
+    }
+
+    @Before
+    public void setUp() {
+        BenchmarkDatabases.Seeded seeded = BenchmarkDatabases.open(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(), size);
+        db = seeded.db;
+        userId = seeded.userId;
+    }
+
+    @Test
+    public void searchPrefix() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            drain(db.searchBuddiesForUser("mei", userId));
+        }
+    }
+
+    @Test
+    public void firstListPage() {
+        BuddyFilter all = new BuddyFilter("", 0);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            drain(db.getBuddyPage(userId, all, null, BuddyPager.PAGE_SIZE, null));
+        }
+    }
+
+    @Test
+    public void upcomingBirthdays() {
+        int todayKey = BirthDates.keyOf(6, 15);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            drain(db.getUpcomingBirthdays(userId, todayKey, 3));
+        }
+    }
+
+    // The Reports screen reads its counts from user_stats
+    @Test
+    public void reportSnapshot() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            db.getReportSnapshot(userId);
+        }
+    }
+
+    // The twelve COUNT(*) queries the Reports screen used to run, as a baseline
+    @Test
+    public void monthCountScans() {
+        SQLiteDatabase sqlite = db.getReadableDatabase();
+        String sql = "SELECT COUNT(*) FROM " + DatabaseHelper.TABLE_BUDDIES + " WHERE " +
+                DatabaseHelper.COL_BUDDY_USER_ID + "=? AND " + DatabaseHelper.COL_BUDDY_BIRTH_MONTH + "=?";
+        String user = String.valueOf(userId);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int month = 1; month <= 12; month++) {
+                drain(sqlite.rawQuery(sql, new String[]{user, String.valueOf(month)}));
+            }
+        }
+    }
+
+    private static int drain(Cursor cursor) {
+        int rows = 0;
+        try (Cursor c = cursor) {
+            while (c.moveToNext()) rows++;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.studentmanagerapp;
+
+import android.database.Cursor;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.SystemClock;
+import android.util.Log;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+// Fills a database with realistic volumes through DatabaseHelper: users,
+// buddies with seasonal birthdays, phones and emails, and optionally photos.
+// Rows go in through the same batched inserter as the CSV import. Photos are
+// drawn from a small pool of generated images to keep generation fast; rows
+// still point at real files, so photo columns, thumbnails and variants all
+// see real data. The same config always produces the same database.
+public class LoadDataGenerator {
+
+    private static final String TAG = "LoadDataGenerator";
+
+    public static final String PASSWORD = "load";
+
+    public static class Config {
+        public long seed = SyntheticBuddies.SEED;
+        public int users = 3;
+        // The first user gets this many; every other user a tenth of it
+        public int buddiesPerUser = 10_000;
+        // null for uniform birth months
+        public int[] monthWeights = SyntheticBuddies.SEASONAL_MONTHS;
+        // Share of buddies with a photo, 0 to 1
+        public float photoFraction = 0.2f;
+        // Edge of the stored photos; the app itself never stores more than 300
+        public int photoSize = 300;
+        public int distinctPhotos = 50;
+    }
+
+    public static class Result {
+        public final long[] userIds;
+        public final int buddies;
+        public final int photos;
+        public final long elapsedMs;
+
+        Result(long[] userIds, int buddies, int photos, long elapsedMs) {
+            this.userIds = userIds;
+            this.buddies = buddies;
+            this.photos = photos;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    private final DatabaseHelper db;
+
+    public LoadDataGenerator(DatabaseHelper db) {
+        this.db = db;
+    }
+
+    public static String username(int index) {
+        return "load-user-" + index;
+    }
+
+    public Result populate(Config config) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+        Random random = new Random(config.seed);
+        PhotoStore.Entry[] photos = config.photoFraction > 0 ? createPhotos(config, random) : new PhotoStore.Entry[0];
+
+        long[] userIds = new long[config.users];
+        int buddies = 0;
+        int withPhoto = 0;
+        for (int u = 0; u < config.users; u++) {
+            String username = username(u);
+            db.insertUser(username, PASSWORD);
+            userIds[u] = userId(username);
+
+            int count = u == 0 ? config.buddiesPerUser : Math.max(1, config.buddiesPerUser / 10);
+            SyntheticBuddies source = new SyntheticBuddies(config.seed + u, config.monthWeights);
+            try (DatabaseHelper.BuddyInserter inserter = db.openBuddyInserter(userIds[u])) {
+                for (int i = 0; i < count; i++) {
+                    if (i % BuddyImporter.BATCH_SIZE == 0) {
+                        if (i > 0) inserter.commitBatch();
+                        inserter.beginBatch();
+                    }
+                    PhotoStore.Entry photo = null;
+                    if (photos.length > 0 && random.nextFloat() < config.photoFraction) {
+                        photo = photos[random.nextInt(photos.length)];
+                        withPhoto++;
+                    }
+                    inserter.insert(source.next(), photo);
+                }
+                if (count > 0) inserter.commitBatch();
+            }
+            buddies += count;
+        }
+
+        long elapsed = SystemClock.elapsedRealtime() - start;
+        Log.i(TAG, "Generated " + config.users + " users, " + buddies + " buddies, " +
+                withPhoto + " with photos in " + elapsed + "ms");
+        return new Result(userIds, buddies, withPhoto, elapsed);
+    }
+
+    private PhotoStore.Entry[] createPhotos(Config config, Random random) throws IOException {
+        PhotoStore photoStore = db.getPhotoStore();
+        PhotoStore.Entry[] entries = new PhotoStore.Entry[Math.max(1, config.distinctPhotos)];
+        Bitmap bitmap = Bitmap.createBitmap(config.photoSize, config.photoSize, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream(64 * 1024);
+
+        for (int i = 0; i < entries.length; i++) {
+            // A coloured face-sized blob on a background, different for every photo
+            canvas.drawColor(0xFF000000 | random.nextInt(0x1000000));
+            paint.setColor(0xFF000000 | random.nextInt(0x1000000));
+            canvas.drawCircle(config.photoSize / 2f, config.photoSize * 0.4f, config.photoSize * 0.25f, paint);
+            canvas.drawRect(config.photoSize * 0.2f, config.photoSize * 0.7f,
+                    config.photoSize * 0.8f, config.photoSize, paint);
+
+            jpeg.reset();
+            bitmap.compress(Bitmap.CompressFormat.JPEG, 80, jpeg);
+            entries[i] = photoStore.put(jpeg.toByteArray());
+            photoStore.putVariants(entries[i].key, bitmap);
+        }
+        bitmap.recycle();
+        return entries;
+    }
+
+    private long userId(String username) throws IOException {
+        try (Cursor cursor = db.checkLoginAndGetId(username, PASSWORD)) {
+            if (!cursor.moveToFirst()) throw new IOException("User " + username + " was not created");
+            return cursor.getLong(0);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Scripted session against a generated database: open the main list, scroll,
+// search while typing, filter by each month, open Reports and open a buddy.
+// Each step makes the same DatabaseHelper and PhotoStore calls as its screen,
+// runs headless, and is repeated to give per-step latency percentiles, which
+// are written as JSON next to the other test output.
+//
+// Volumes come from instrumentation arguments, for example
+//   ./gradlew connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.loadBuddies=100000
+// Arguments: loadUsers, loadBuddies, loadPhotoFraction, loadPhotoSize, loadRepeats.
+@RunWith(AndroidJUnit4.class)
+public class LoadScenarioTest {
+
+    private static final String TAG = "LoadScenario";
+    private static final String DATABASE_NAME = "load-scenario.db";
+
+    private static final String[] SEARCH_TYPING = {"a", "ai", "ais", "aisy"};
+    private static final int SCROLL_PAGES = 5;
+
+    private Context context;
+    private File photoDir;
+    private DatabaseHelper db;
+    private LoadDataGenerator.Config config;
+    private LoadDataGenerator.Result generated;
+    private int repeats;
+
+    private final List<Step> steps = new ArrayList<>();
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static class Step {
+        final String name;
+        final long[] nanos;
+
+        Step(String name, int repeats) {
+            this.name = name;
+            this.nanos = new long[repeats];
+        }
+
+        double percentileMs(int percent) {
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Bundle arguments = InstrumentationRegistry.getArguments();
+
+        config = new LoadDataGenerator.Config();
+        config.users = intArgument(arguments, "loadUsers", config.users);
+        config.buddiesPerUser = intArgument(arguments, "loadBuddies", config.buddiesPerUser);
+        config.photoFraction = Float.parseFloat(arguments.getString("loadPhotoFraction", String.valueOf(config.photoFraction)));
+        config.photoSize = intArgument(arguments, "loadPhotoSize", config.photoSize);
+        repeats = intArgument(arguments, "loadRepeats", 5);
+
+        // Always start from an empty, local database
+        context.deleteDatabase(DATABASE_NAME);
+        photoDir = new File(context.getCacheDir(), "load-scenario-photos");
+        deleteRecursively(photoDir);
+        db = new DatabaseHelper(context, DATABASE_NAME, new PhotoStore(photoDir));
+        generated = new LoadDataGenerator(db).populate(config);
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null) db.close();
+        context.deleteDatabase(DATABASE_NAME);
+        deleteRecursively(photoDir);
+    }
+
+    @Test
+    public void mainSession() throws Exception {
+        long userId = generated.userIds[0];
+        assertEquals(config.buddiesPerUser, db.getBuddyCount(userId));
+
+        BuddyFilter all = new BuddyFilter("", 0);
+        Calendar today = Calendar.getInstance();
+        int todayKey = BirthDates.keyOf(today.get(Calendar.MONTH) + 1, today.get(Calendar.DAY_OF_MONTH));
+
+        measure("open_main_list", () -> {
+            drain(db.getUsernameByUserId(userId));
+            BuddyRow.readAll(db.getBuddyPage(userId, all, null, BuddyPager.PAGE_SIZE, null));
+            drain(db.getUpcomingBirthdays(userId, todayKey, 3));
+        });
+
+        measure("list_thumbnails", () -> {
+            for (BuddyRow row : BuddyRow.readAll(db.getBuddyPage(userId, all, null, BuddyPager.PAGE_SIZE, null))) {
+                if (row.photoKey != null) db.getPhotoStore().decode(row.photoKey, PhotoStore.Variant.THUMBNAIL).recycle();
+            }
+        });
+
+        measure("scroll_list", () -> {
+            BuddyRow after = null;
+            for (int page = 0; page < SCROLL_PAGES; page++) {
+                List<BuddyRow> rows = BuddyRow.readAll(db.getBuddyPage(userId, all, after, BuddyPager.PAGE_SIZE, null));
+                if (rows.isEmpty()) break;
+                after = rows.get(rows.size() - 1);
+            }
+        });
+
+        measure("search_typing", () -> {
+            for (String query : SEARCH_TYPING) {
+                BuddyRow.readAll(db.getBuddyPage(userId, new BuddyFilter(query, 0), null, BuddyPager.PAGE_SIZE, null));
+            }
+        });
+
+        measure("filter_months", () -> {
+            for (int month = 1; month <= 12; month++) {
+                BuddyRow.readAll(db.getBuddyPage(userId, new BuddyFilter("", month), null, BuddyPager.PAGE_SIZE, null));
+            }
+        });
+
+        measure("open_reports", () -> {
+            ReportSnapshot snapshot = db.getReportSnapshot(userId);
+            assertEquals(config.buddiesPerUser, snapshot.totalCount);
+        });
+
+        long buddyId = firstBuddyWithPhoto(userId);
+        measure("open_buddy", () -> {
+            try (Cursor cursor = db.getBuddyById(buddyId)) {
+                assertTrue(cursor.moveToFirst());
+                String photoKey = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHOTO_KEY));
+                if (photoKey != null) db.getPhotoStore().decode(photoKey, PhotoStore.Variant.DETAIL).recycle();
+            }
+        });
+
+        File report = writeReport();
+        Log.i(TAG, "Wrote " + report);
+
+        // StrictMode only reports violations to the guard from Android 9
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            assertEquals("Main thread violations, see MainThreadGuard in logcat",
+                    0, MainThreadGuard.getViolationCount());
+        }
+    }
+
+    private void measure(String name, Action action) throws Exception {
+        // One untimed pass so the first sample is not the only one paying for cold caches
+        action.run();
+        Step step = new Step(name, repeats);
+        for (int i = 0; i < repeats; i++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            action.run();
+            step.nanos[i] = SystemClock.elapsedRealtimeNanos() - start;
+        }
+        steps.add(step);
+        Log.i(TAG, String.format(Locale.US, "%s: p50 %.2f ms, p95 %.2f ms",
+                name, step.percentileMs(50), step.percentileMs(95)));
+    }
+
+    private long firstBuddyWithPhoto(long userId) {
+        try (Cursor cursor = db.getReadableDatabase().rawQuery("SELECT " + DatabaseHelper.COL_BUDDY_ID +
+                        " FROM " + DatabaseHelper.TABLE_BUDDIES + " WHERE " + DatabaseHelper.COL_BUDDY_USER_ID +
+                        "=? ORDER BY " + DatabaseHelper.COL_BUDDY_PHOTO_KEY + " IS NULL LIMIT 1",
+                new String[]{String.valueOf(userId)})) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
+
+    private File writeReport() throws IOException {
+        String dirArgument = InstrumentationRegistry.getArguments().getString("additionalTestOutputDir");
+        File dir = dirArgument != null ? new File(dirArgument) : context.getExternalFilesDir(null);
+        File file = new File(dir, "load-scenario.json");
+
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            out.write(String.format(Locale.US,
+                    "{\n  \"users\": %d,\n  \"buddies\": %d,\n  \"buddiesForUser\": %d,\n  \"photos\": %d,\n" +
+                            "  \"photoSize\": %d,\n  \"generateMs\": %d,\n  \"repeats\": %d,\n  \"steps\": [",
+                    config.users, generated.buddies, config.buddiesPerUser, generated.photos,
+                    config.photoSize, generated.elapsedMs, repeats));
+            for (int i = 0; i < steps.size(); i++) {
+                Step step = steps.get(i);
+                out.write(i == 0 ? "\n" : ",\n");
+                out.write(String.format(Locale.US,
+                        "    {\"name\": \"%s\", \"p50Ms\": %.3f, \"p95Ms\": %.3f, \"maxMs\": %.3f}",
+                        step.name, step.percentileMs(50), step.percentileMs(95), step.percentileMs(100)));
+            }
+            out.write("\n  ]\n}\n");
+        }
+        return file;
+    }
+
+    private static int intArgument(Bundle arguments, String key, int fallback) {
+        String value = arguments.getString(key);
+        return value != null ? Integer.parseInt(value) : fallback;
+    }
+
+    private static void drain(Cursor cursor) {
+        try (Cursor c = cursor) {
+            while (c.moveToNext()) {
+                // Walk every row so the CursorWindow is filled
+            }
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) deleteRecursively(child);
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.studentmanagerapp;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.net.Uri;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+// Photo paths from picking an image to showing it: the old full-size decode
+// against the sampled ingest, the JPEG encode, and the list thumbnail decode
+// against decoding the stored photo. The source is a generated 12 MP JPEG.
+@RunWith(AndroidJUnit4.class)
+public class PhotoBenchmark {
+
+    private static final int SOURCE_WIDTH = 4000;
+    private static final int SOURCE_HEIGHT = 3000;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Context context;
+    private File source;
+    private PhotoStore photoStore;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        File dir = new File(context.getCacheDir(), "photo-benchmark");
+        photoStore = new PhotoStore(new File(dir, "store"));
+        source = new File(dir, "source.jpg");
+        if (!source.exists()) writeSource(source);
+    }
+
+    // What the picker did before PhotoIngest
+    @Test
+    public void fullDecodeThenScale() {
+        String path = source.getAbsolutePath();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Bitmap full = BitmapFactory.decodeFile(path);
+            Bitmap scaled = Bitmap.createScaledBitmap(full, PhotoIngest.TARGET_SIZE, PhotoIngest.TARGET_SIZE * 3 / 4, true);
+            full.recycle();
+            scaled.recycle();
+        }
+    }
+
+    @Test
+    public void ingest() throws IOException {
+        Uri uri = Uri.fromFile(source);
+        PhotoIngest photoIngest = new PhotoIngest(photoStore);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            PhotoIngest.Result result = photoIngest.ingest(context.getContentResolver(), uri);
+            photoIngest.store(result);
+            result.bitmap.recycle();
+        }
+        photoIngest.shutdown();
+    }
+
+    @Test
+    public void encodeJpeg() {
+        Bitmap bitmap = Bitmap.createBitmap(PhotoIngest.TARGET_SIZE, PhotoIngest.TARGET_SIZE, Bitmap.Config.ARGB_8888);
+        paint(bitmap);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            out.reset();
+            bitmap.compress(Bitmap.CompressFormat.JPEG, 80, out);
+        }
+    }
+
+    @Test
+    public void decodeStoredPhoto() throws IOException {
+        String key = storedKey();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            photoStore.decode(key).recycle();
+        }
+    }
+
+    @Test
+    public void decodeThumbnailVariant() throws IOException {
+        String key = storedKey();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            photoStore.decode(key, PhotoStore.Variant.THUMBNAIL).recycle();
+        }
+    }
+
+    private String storedKey() throws IOException {
+        PhotoIngest photoIngest = new PhotoIngest(photoStore);
+        PhotoIngest.Result result = photoIngest.ingest(context.getContentResolver(), Uri.fromFile(source));
+        String key = photoIngest.store(result).key;
+        result.bitmap.recycle();
+        photoIngest.shutdown();
+        return key;
+    }
+
+    private static void writeSource(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        Bitmap bitmap = Bitmap.createBitmap(SOURCE_WIDTH, SOURCE_HEIGHT, Bitmap.Config.ARGB_8888);
+        paint(bitmap);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            bitmap.compress(Bitmap.CompressFormat.JPEG, 90, out);
+        }
+        bitmap.recycle();
+    }
+
+    // A gradient with some edges, so the encoder has real work to do
+    private static void paint(Bitmap bitmap) {
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint();
+        paint.setShader(new LinearGradient(0, 0, bitmap.getWidth(), bitmap.getHeight(),
+                0xFF1B5E20, 0xFFFBF7F0, Shader.TileMode.CLAMP));
+        canvas.drawPaint(paint);
+        paint.setShader(null);
+        paint.setColor(0xFF4CAF50);
+        for (int i = 0; i < 20; i++) {
+            float r = bitmap.getWidth() / 40f * (i + 1);
+            canvas.drawCircle(bitmap.getWidth() / 2f, bitmap.getHeight() / 2f, r, paint);
+            paint.setColor(paint.getColor() ^ 0x00305030);
+        }
+    }
+}
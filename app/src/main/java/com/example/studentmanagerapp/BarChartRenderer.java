@@ -0,0 +1,171 @@
+package com.example.studentmanagerapp;
+
+import android.graphics.Canvas;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+// Vertical bars over a light full-height track, with the value above each bar
+// and the category label below. When there are more bars than labels fit,
+// only every n-th label is drawn.
+public class BarChartRenderer implements ChartRenderer {
+
+    private static final int BACKGROUND_BAR_COLOR = 0xFFE8E8E8;
+    private static final int TEXT_COLOR = 0xFF212121;
+    private static final int LABEL_COLOR = 0xFF757575;
+    private static final int BASELINE_COLOR = 0xFFBDBDBD;
+
+    private static final float PADDING_TOP = 60f;
+    private static final float PADDING_BOTTOM = 80f;
+    private static final float PADDING_LEFT = 40f;
+    private static final float PADDING_RIGHT = 40f;
+    private static final float BAR_SPACING = 8f;
+    private static final float MIN_BAR_WIDTH = 12f;
+    private static final float CORNER_RADIUS = 12f;
+    private static final float LABEL_GAP = 8f;
+
+    private final Paint barPaint;
+    private final Paint barBackgroundPaint;
+    private final Paint textPaint;
+    private final Paint labelPaint;
+    private final Paint baselinePaint;
+
+    // One gradient spanning the chart height, built in layout() so drawing
+    // never touches the shader; each bar shows the slice it covers
+    private final int color;
+    private final int gradientColor;
+    private float gradientTop = Float.NaN;
+    private float gradientBottom = Float.NaN;
+    private final RectF barRect = new RectF();
+
+    // Geometry from layout(), grown only when a longer series arrives
+    private RectF[] backgroundRects = new RectF[0];
+    private float[] barCenters = new float[0];
+    private boolean[] valueFits = new boolean[0];
+    private float chartHeight;
+    private float baselineY;
+    private float baselineRight;
+    private float maxValue;
+    private int labelStride = 1;
+
+    public BarChartRenderer(int color, int gradientColor) {
+        this.color = color;
+        this.gradientColor = gradientColor;
+        barPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        barPaint.setStyle(Paint.Style.FILL);
+        barPaint.setColor(color);
+
+        barBackgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        barBackgroundPaint.setStyle(Paint.Style.FILL);
+        barBackgroundPaint.setColor(BACKGROUND_BAR_COLOR);
+
+        textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setColor(TEXT_COLOR);
+        textPaint.setTextSize(28f);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        textPaint.setFakeBoldText(true);
+
+        labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        labelPaint.setColor(LABEL_COLOR);
+        labelPaint.setTextSize(24f);
+        labelPaint.setTextAlign(Paint.Align.CENTER);
+
+        baselinePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        baselinePaint.setColor(BASELINE_COLOR);
+        baselinePaint.setStrokeWidth(2f);
+    }
+
+    @Override
+    public SeriesDownsampler.Mode getDownsampleMode() {
+        return SeriesDownsampler.Mode.BUCKET_SUM;
+    }
+
+    @Override
+    public int maxPoints(int width) {
+        float chartWidth = width - PADDING_LEFT - PADDING_RIGHT;
+        return Math.max(1, (int) ((chartWidth + BAR_SPACING) / (MIN_BAR_WIDTH + BAR_SPACING)));
+    }
+
+    @Override
+    public boolean isSquare() {
+        return false;
+    }
+
+    @Override
+    public void layout(ChartSeries series, int width, int height) {
+        int n = series.size();
+        ensureCapacity(n);
+
+        chartHeight = height - PADDING_TOP - PADDING_BOTTOM;
+        float chartWidth = width - PADDING_LEFT - PADDING_RIGHT;
+        baselineY = PADDING_TOP + chartHeight;
+        baselineRight = width - PADDING_RIGHT;
+        maxValue = Math.max(series.max(), 1f);
+        if (PADDING_TOP != gradientTop || baselineY != gradientBottom) {
+            gradientTop = PADDING_TOP;
+            gradientBottom = baselineY;
+            barPaint.setShader(new LinearGradient(0f, gradientTop, 0f, gradientBottom,
+                    gradientColor, color, Shader.TileMode.CLAMP));
+        }
+
+        float barWidth = n > 0 ? (chartWidth - (n - 1) * BAR_SPACING) / n : 0f;
+        float pitch = barWidth + BAR_SPACING;
+
+        float widestLabel = 0f;
+        for (int i = 0; i < n; i++) {
+            float x = PADDING_LEFT + i * pitch;
+            backgroundRects[i].set(x, PADDING_TOP, x + barWidth, baselineY);
+            barCenters[i] = x + barWidth / 2;
+            valueFits[i] = textPaint.measureText(series.getValueLabel(i)) <= pitch;
+            String label = series.getLabel(i);
+            if (label != null) {
+                widestLabel = Math.max(widestLabel, labelPaint.measureText(label));
+            }
+        }
+        labelStride = pitch > 0 ? Math.max(1, (int) Math.ceil((widestLabel + LABEL_GAP) / pitch)) : 1;
+    }
+
+    private void ensureCapacity(int n) {
+        if (backgroundRects.length >= n) return;
+        RectF[] rects = new RectF[n];
+        System.arraycopy(backgroundRects, 0, rects, 0, backgroundRects.length);
+        for (int i = backgroundRects.length; i < n; i++) {
+            rects[i] = new RectF();
+        }
+        backgroundRects = rects;
+        barCenters = new float[n];
+        valueFits = new boolean[n];
+    }
+
+    @Override
+    public void draw(Canvas canvas, ChartSeries series, float progress) {
+        int n = series.size();
+        for (int i = 0; i < n; i++) {
+            RectF background = backgroundRects[i];
+
+            // Background track (full height, light)
+            canvas.drawRoundRect(background, CORNER_RADIUS, CORNER_RADIUS, barBackgroundPaint);
+
+            float value = series.getValue(i);
+            float barHeight = (value * progress / maxValue) * chartHeight;
+            if (barHeight > 0) {
+                float barTop = baselineY - barHeight;
+                barRect.set(background.left, barTop, background.right, baselineY);
+                canvas.drawRoundRect(barRect, CORNER_RADIUS, CORNER_RADIUS, barPaint);
+
+                // Value on top of the bar if there's space
+                if (value > 0 && barHeight > 40 && valueFits[i]) {
+                    canvas.drawText(series.getValueLabel(i), barCenters[i], barTop - 10, textPaint);
+                }
+            }
+
+            String label = series.getLabel(i);
+            if (label != null && i % labelStride == 0) {
+                canvas.drawText(label, barCenters[i], baselineY + 35, labelPaint);
+            }
+        }
+
+        canvas.drawLine(PADDING_LEFT, baselineY, baselineRight, baselineY, baselinePaint);
+    }
+}
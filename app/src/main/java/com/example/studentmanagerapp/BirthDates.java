@@ -0,0 +1,45 @@
+package com.example.studentmanagerapp;
+
+// Pulls month and day out of the yyyy-MM-dd strings stored in buddies.dob,
+// which is what the derived birth_month and birth_day columns are built from.
+public class BirthDates {
+
+    // 1-12, or 0 when the date is missing or malformed
+    public static int monthOf(String dob) {
+        int[] parts = parse(dob);
+        return parts != null ? parts[1] : 0;
+    }
+
+    // 1-31, or 0 when the date is missing or malformed
+    public static int dayOf(String dob) {
+        int[] parts = parse(dob);
+        return parts != null ? parts[2] : 0;
+    }
+
+    // Sortable day-of-year key: March 7 is 307. Ordering by it walks the calendar
+    // from January 1st, and it is the same every year, including for Feb 29.
+    public static int keyOf(int month, int day) {
+        return month * 100 + day;
+    }
+
+    // 0 when the date is missing or malformed
+    public static int keyOf(String dob) {
+        int[] parts = parse(dob);
+        return parts != null ? keyOf(parts[1], parts[2]) : 0;
+    }
+
+    private static int[] parse(String dob) {
+        if (dob == null) return null;
+        String[] fields = dob.trim().split("-");
+        if (fields.length != 3) return null;
+        try {
+            int year = Integer.parseInt(fields[0]);
+            int month = Integer.parseInt(fields[1]);
+            int day = Integer.parseInt(fields[2]);
+            if (month < 1 || month > 12 || day < 1 || day > 31) return null;
+            return new int[]{year, month, day};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
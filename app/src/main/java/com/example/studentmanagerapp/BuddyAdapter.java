@@ -1,41 +1,119 @@
 package com.example.studentmanagerapp;
 
-import android.database.Cursor;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.card.MaterialCardView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 public class BuddyAdapter extends RecyclerView.Adapter<BuddyAdapter.BuddyViewHolder> {
 
-    private Cursor cursor;
+    private final List<BuddyRow> rows = new ArrayList<>();
+    private final ThumbnailLoader thumbnailLoader;
     private OnItemClickListener listener;
 
+    // Diffs are computed here so a large list never stalls the main thread;
+    // the activity owns it and shuts it down
+    private final Executor diffExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private int diffGeneration;
+    private boolean diffPending;
+    private final List<List<BuddyRow>> appendsWhileDiffing = new ArrayList<>();
+
     public interface OnItemClickListener {
         void onItemClick(long id);
     }
 
-    public BuddyAdapter(Cursor cursor) {
-        this.cursor = cursor;
+    public BuddyAdapter(ThumbnailLoader thumbnailLoader, Executor diffExecutor) {
+        this.thumbnailLoader = thumbnailLoader;
+        this.diffExecutor = diffExecutor;
+        setHasStableIds(true);
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
         this.listener = listener;
     }
 
-    public void swapCursor(Cursor newCursor) {
-        if (cursor != null) {
-            cursor.close();
+    // Replaces the list with the result of a new query. Only rows that were
+    // added, removed or changed (by id and content version) are rebound.
+    public void setRows(List<BuddyRow> newRows) {
+        int gen = ++diffGeneration;
+        diffPending = true;
+        appendsWhileDiffing.clear();
+
+        List<BuddyRow> oldRows = new ArrayList<>(rows);
+        List<BuddyRow> targetRows = new ArrayList<>(newRows);
+        diffExecutor.execute(() -> {
+            DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new RowDiff(oldRows, targetRows), false);
+            mainHandler.post(() -> {
+                // A newer list arrived while this one was being diffed
+                if (gen != diffGeneration) return;
+                diffPending = false;
+                rows.clear();
+                rows.addAll(targetRows);
+                diff.dispatchUpdatesTo(this);
+
+                for (List<BuddyRow> page : appendsWhileDiffing) {
+                    appendNow(page);
+                }
+                appendsWhileDiffing.clear();
+            });
+        });
+    }
+
+    // Appends a further page loaded while scrolling
+    public void appendRows(List<BuddyRow> page) {
+        if (diffPending) {
+            appendsWhileDiffing.add(page);
+        } else {
+            appendNow(page);
+        }
+    }
+
+    private void appendNow(List<BuddyRow> page) {
+        int start = rows.size();
+        rows.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
+    private static class RowDiff extends DiffUtil.Callback {
+        private final List<BuddyRow> oldRows;
+        private final List<BuddyRow> newRows;
+
+        RowDiff(List<BuddyRow> oldRows, List<BuddyRow> newRows) {
+            this.oldRows = oldRows;
+            this.newRows = newRows;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldRows.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newRows.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return oldRows.get(oldPosition).id == newRows.get(newPosition).id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return oldRows.get(oldPosition).sameContentAs(newRows.get(newPosition));
         }
-        cursor = newCursor;
-        notifyDataSetChanged();
     }
 
     @NonNull
@@ -48,44 +126,50 @@ public class BuddyAdapter extends RecyclerView.Adapter<BuddyAdapter.BuddyViewHol
 
     @Override
     public void onBindViewHolder(@NonNull BuddyViewHolder holder, int position) {
-        if (cursor != null && cursor.moveToPosition(position)) {
-            long id = cursor.getLong(cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_ID));
-            String name = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_NAME));
-            String phone = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHONE));
-
-            // Get photo
-            int photoIndex = cursor.getColumnIndex(DatabaseHelper.COL_BUDDY_PHOTO);
-            String photoBase64 = (photoIndex != -1) ? cursor.getString(photoIndex) : null;
-
-            holder.tvName.setText(name);
-            holder.tvPhone.setText(phone != null && !phone.isEmpty() ? phone : "No phone");
-
-            // Set photo or default icon
-            if (photoBase64 != null && !photoBase64.trim().isEmpty()) {
-                try {
-                    Bitmap bitmap = base64ToBitmap(photoBase64);
-                    if (bitmap != null) {
-                        holder.ivBuddyIcon.setImageBitmap(bitmap);
-                        holder.ivBuddyIcon.setScaleType(ImageView.ScaleType.CENTER_CROP);
-                        holder.ivBuddyIcon.setPadding(0, 0, 0, 0);
-                        holder.ivBuddyIcon.setImageTintList(null);
-                    } else {
-                        setDefaultIcon(holder.ivBuddyIcon);
-                    }
-                } catch (Exception e) {
-                    // If photo fails to load, show default icon
-                    setDefaultIcon(holder.ivBuddyIcon);
-                }
+        BuddyRow row = rows.get(position);
+        long id = row.id;
+        String phone = row.phone;
+
+        // Only the photo key is in memory; the bytes stay on disk until the row is bound
+        String photoKey = row.photoKey;
+
+        holder.tvName.setText(row.name);
+        holder.tvPhone.setText(phone != null && !phone.isEmpty() ? phone : "No phone");
+
+        // Set photo or default icon; decoding never happens on the main thread
+        thumbnailLoader.cancel(holder.ivBuddyIcon);
+        if (photoKey != null && !photoKey.isEmpty()) {
+            Bitmap cached = thumbnailLoader.getCached(id, photoKey);
+            if (cached != null) {
+                setPhoto(holder.ivBuddyIcon, cached);
             } else {
+                // Show the default icon right away and swap in the photo once decoded
                 setDefaultIcon(holder.ivBuddyIcon);
+                ImageView target = holder.ivBuddyIcon;
+                thumbnailLoader.load(target, id, photoKey, bitmap -> setPhoto(target, bitmap));
             }
-
-            holder.itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onItemClick(id);
-                }
-            });
+        } else {
+            setDefaultIcon(holder.ivBuddyIcon);
         }
+
+        holder.itemView.setOnClickListener(v -> {
+            if (listener != null) {
+                listener.onItemClick(id);
+            }
+        });
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull BuddyViewHolder holder) {
+        super.onViewRecycled(holder);
+        thumbnailLoader.cancel(holder.ivBuddyIcon);
+    }
+
+    private void setPhoto(ImageView imageView, Bitmap bitmap) {
+        imageView.setImageBitmap(bitmap);
+        imageView.setScaleType(ImageView.ScaleType.CENTER_CROP);
+        imageView.setPadding(0, 0, 0, 0);
+        imageView.setImageTintList(null);
     }
 
     private void setDefaultIcon(ImageView imageView) {
@@ -96,14 +180,14 @@ public class BuddyAdapter extends RecyclerView.Adapter<BuddyAdapter.BuddyViewHol
         imageView.setImageTintList(null);
     }
 
-    private Bitmap base64ToBitmap(String base64String) {
-        byte[] decodedBytes = Base64.decode(base64String, Base64.DEFAULT);
-        return BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
+    @Override
+    public long getItemId(int position) {
+        return rows.get(position).id;
     }
 
     @Override
     public int getItemCount() {
-        return cursor != null ? cursor.getCount() : 0;
+        return rows.size();
     }
 
     static class BuddyViewHolder extends RecyclerView.ViewHolder {
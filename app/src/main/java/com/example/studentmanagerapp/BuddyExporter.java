@@ -0,0 +1,218 @@
+package com.example.studentmanagerapp;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+import android.os.ParcelFileDescriptor;
+import android.provider.DocumentsContract;
+import android.util.Log;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Writes a user's buddies to a zip: buddies.csv, in the layout BuddyImporter
+// reads back, followed by every photo they reference under photos/. Rows are
+// streamed from a cursor and photos are copied file to zip through channels,
+// so memory use stays at a few buffers no matter how many buddies or photos
+// there are. Photos are stored without recompression; JPEGs do not shrink.
+public class BuddyExporter {
+
+    private static final String TAG = "BuddyExporter";
+
+    public static final String CSV_ENTRY = "buddies.csv";
+    public static final String PHOTO_DIR = "photos/";
+
+    private static final int OUTPUT_BUFFER = 64 * 1024;
+    private static final int CSV_BUFFER = 16 * 1024;
+
+    // How often row progress is reported
+    private static final int PROGRESS_EVERY = 500;
+
+    // Called on the exporting thread
+    public interface Listener {
+        void onProgress(int rowsWritten, int photosWritten, int totalPhotos);
+    }
+
+    public static class Result {
+        public final int rows;
+        public final int photos;
+        public final int missingPhotos;
+        public final boolean cancelled;
+        public final long elapsedMs;
+
+        Result(int rows, int photos, int missingPhotos, boolean cancelled, long elapsedMs) {
+            this.rows = rows;
+            this.photos = photos;
+            this.missingPhotos = missingPhotos;
+            this.cancelled = cancelled;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    private final DatabaseHelper db;
+    private final PhotoStore photoStore;
+
+    public BuddyExporter(DatabaseHelper db) {
+        this.db = db;
+        this.photoStore = db.getPhotoStore();
+    }
+
+    // A cancelled or failed export deletes the half-written document when the
+    // provider allows it, so a truncated zip is never left to be imported later
+    public Result exportTo(ContentResolver resolver, Uri uri, long userId,
+                           Listener listener, CancellationSignal signal) throws IOException {
+        ParcelFileDescriptor pfd = resolver.openFileDescriptor(uri, "wt");
+        if (pfd == null) throw new IOException("Cannot open " + uri);
+        // The stream owns the descriptor and closes it with the zip
+        FileChannel channel = new ParcelFileDescriptor.AutoCloseOutputStream(pfd).getChannel();
+        Result result;
+        try {
+            result = exportTo(Channels.newOutputStream(channel), userId, listener, signal);
+        } catch (IOException | RuntimeException e) {
+            deleteDocument(resolver, uri);
+            throw e;
+        }
+        if (result.cancelled) {
+            deleteDocument(resolver, uri);
+        }
+        return result;
+    }
+
+    private static void deleteDocument(ContentResolver resolver, Uri uri) {
+        try {
+            DocumentsContract.deleteDocument(resolver, uri);
+        } catch (Exception e) {
+            Log.w(TAG, "Could not delete unfinished export " + uri, e);
+        }
+    }
+
+    // Closes the stream
+    public Result exportTo(OutputStream out, long userId, Listener listener, CancellationSignal signal) throws IOException {
+        long start = System.currentTimeMillis();
+        int rows = 0;
+        int photos = 0;
+        int missing = 0;
+        boolean cancelled = false;
+
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, OUTPUT_BUFFER))) {
+            rows = writeCsv(zip, userId, listener, signal);
+
+            int totalPhotos = db.getPhotoCountForUser(userId);
+            if (listener != null) listener.onProgress(rows, 0, totalPhotos);
+
+            // Photos are already compressed; deflating them again only costs CPU
+            zip.setLevel(Deflater.NO_COMPRESSION);
+            WritableByteChannel zipChannel = Channels.newChannel(zip);
+            try (Cursor keys = db.getPhotoKeysForUser(userId)) {
+                while (keys.moveToNext()) {
+                    if (signal != null) signal.throwIfCanceled();
+                    String key = keys.getString(0);
+                    File file = photoStore.fileFor(key);
+                    if (!file.exists()) {
+                        missing++;
+                        continue;
+                    }
+                    zip.putNextEntry(new ZipEntry(PHOTO_DIR + file.getName()));
+                    copy(file, zipChannel);
+                    zip.closeEntry();
+                    photos++;
+                    if (listener != null) listener.onProgress(rows, photos, totalPhotos);
+                }
+            }
+        } catch (OperationCanceledException e) {
+            cancelled = true;
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        Log.d(TAG, "Exported " + rows + " rows, " + photos + " photos, missing=" + missing +
+                " cancelled=" + cancelled + " in " + elapsed + "ms");
+        return new Result(rows, photos, missing, cancelled, elapsed);
+    }
+
+    private int writeCsv(ZipOutputStream zip, long userId, Listener listener, CancellationSignal signal) throws IOException {
+        zip.putNextEntry(new ZipEntry(CSV_ENTRY));
+        // Not closed: that would close the zip
+        Writer csv = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), CSV_BUFFER);
+        csv.write("Name,Gender,Birthday,Phone,Email,Photo\r\n");
+
+        int rows = 0;
+        try (Cursor cursor = db.getBuddiesForExport(userId)) {
+            int nameIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_NAME);
+            int genderIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_GENDER);
+            int dobIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_DOB);
+            int phoneIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHONE);
+            int emailIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_EMAIL);
+            int photoIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHOTO_KEY);
+
+            while (cursor.moveToNext()) {
+                if (signal != null) signal.throwIfCanceled();
+                writeField(csv, cursor.getString(nameIndex));
+                csv.write(',');
+                writeField(csv, cursor.getString(genderIndex));
+                csv.write(',');
+                writeField(csv, cursor.getString(dobIndex));
+                csv.write(',');
+                writeField(csv, cursor.getString(phoneIndex));
+                csv.write(',');
+                writeField(csv, cursor.getString(emailIndex));
+                csv.write(',');
+                String photoKey = cursor.getString(photoIndex);
+                if (photoKey != null) {
+                    writeField(csv, PHOTO_DIR + photoStore.fileFor(photoKey).getName());
+                }
+                csv.write("\r\n");
+
+                rows++;
+                if (listener != null && rows % PROGRESS_EVERY == 0) listener.onProgress(rows, 0, 0);
+            }
+        }
+        csv.flush();
+        zip.closeEntry();
+        return rows;
+    }
+
+    // Quotes only the fields that need it, doubling any quotes inside
+    static void writeField(Writer out, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char ch = value.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') out.write('"');
+            out.write(ch);
+        }
+        out.write('"');
+    }
+
+    private static void copy(File file, WritableByteChannel target) throws IOException {
+        try (FileChannel source = new FileInputStream(file).getChannel()) {
+            long size = source.size();
+            long position = 0;
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+        }
+    }
+}
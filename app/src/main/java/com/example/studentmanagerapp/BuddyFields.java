@@ -0,0 +1,70 @@
+package com.example.studentmanagerapp;
+
+import java.util.Locale;
+
+// Normalises buddy field values to the forms the rest of the app stores and
+// queries: phones as +60 followed by the local number, genders as "Male" or
+// "Female", dates of birth as yyyy-MM-dd.
+public class BuddyFields {
+
+    public static String normalizePhone(String phone) {
+        if (phone == null) return "";
+        String digits = phone.replaceAll("[^0-9]", "");
+        if (digits.isEmpty()) return "";
+        if (digits.startsWith("60")) {
+            digits = digits.substring(2);
+        }
+        if (digits.startsWith("0")) {
+            digits = digits.substring(1);
+        }
+        return "+60" + digits;
+    }
+
+    // null when the value is neither
+    public static String normalizeGender(String gender) {
+        if (gender == null) return null;
+        String value = gender.trim().toLowerCase(Locale.ROOT);
+        if (value.equals("m") || value.equals("male")) return "Male";
+        if (value.equals("f") || value.equals("female")) return "Female";
+        return null;
+    }
+
+    // Accepts yyyy-MM-dd, yyyy/MM/dd, yyyy.MM.dd and yyyyMMdd, with or without a
+    // trailing time. null when the value is not a full date in one of those.
+    public static String normalizeDob(String dob) {
+        if (dob == null) return null;
+        String value = dob.trim();
+        int time = value.indexOf('T');
+        if (time > 0) value = value.substring(0, time);
+
+        String year;
+        String month;
+        String day;
+        if (value.length() == 8 && isDigits(value)) {
+            year = value.substring(0, 4);
+            month = value.substring(4, 6);
+            day = value.substring(6, 8);
+        } else {
+            String[] parts = value.split("[-/.]");
+            if (parts.length != 3 || parts[0].length() != 4) return null;
+            year = parts[0];
+            month = parts[1];
+            day = parts[2];
+        }
+        if (!isDigits(year) || !isDigits(month) || !isDigits(day)) return null;
+        if (month.length() > 2 || day.length() > 2) return null;
+
+        String normalized = String.format(Locale.US, "%s-%02d-%02d",
+                year, Integer.parseInt(month), Integer.parseInt(day));
+        return BirthDates.monthOf(normalized) > 0 ? normalized : null;
+    }
+
+    private static boolean isDigits(String value) {
+        if (value.isEmpty()) return false;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.studentmanagerapp;
+
+// What the buddy list is currently showing: a search query, a birth month
+// (1-12, 0 for all months) or everything. A search overrides the month.
+public class BuddyFilter {
+
+    public final String query;
+    public final int month;
+
+    public BuddyFilter(String query, int month) {
+        this.query = query != null ? query.trim() : "";
+        this.month = month;
+    }
+
+    public boolean hasSearch() {
+        return !query.isEmpty();
+    }
+
+    public boolean hasMonth() {
+        return !hasSearch() && month > 0;
+    }
+
+    // Stable identity used for the page cache
+    public String key() {
+        if (hasSearch()) return "q:" + query;
+        if (hasMonth()) return "m:" + month;
+        return "all";
+    }
+}
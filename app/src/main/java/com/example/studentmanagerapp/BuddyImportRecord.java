@@ -0,0 +1,24 @@
+package com.example.studentmanagerapp;
+
+// One contact read from an import file, already normalised with BuddyFields.
+// Fields the file did not have are null.
+public class BuddyImportRecord {
+
+    public final String name;
+    public final String gender;
+    public final String dob;
+    public final String phone;
+    public final String email;
+
+    public BuddyImportRecord(String name, String gender, String dob, String phone, String email) {
+        this.name = name;
+        this.gender = BuddyFields.normalizeGender(gender);
+        this.dob = BuddyFields.normalizeDob(dob);
+        this.phone = phone != null && !phone.trim().isEmpty() ? BuddyFields.normalizePhone(phone) : null;
+        this.email = email != null && !email.trim().isEmpty() ? email.trim() : null;
+    }
+
+    public boolean hasName() {
+        return name != null && !name.trim().isEmpty();
+    }
+}
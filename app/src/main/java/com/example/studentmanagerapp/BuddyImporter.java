@@ -0,0 +1,189 @@
+package com.example.studentmanagerapp;
+
+import android.content.ContentResolver;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+import android.os.CancellationSignal;
+import android.util.Log;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+// Imports buddies from a CSV or vCard file. The file is parsed as it streams
+// in and rows are written through one compiled INSERT in transactions of
+// BATCH_SIZE, so the cost per row is a bind and a step rather than a
+// transaction and a journal sync. Progress is reported after every batch and
+// the import stops at the next row once the signal is cancelled; batches
+// already committed stay imported. A read or write error part way through
+// also keeps the committed batches and comes back in Result.error, so the
+// caller can say how much made it in.
+public class BuddyImporter {
+
+    private static final String TAG = "BuddyImporter";
+
+    public static final int BATCH_SIZE = 500;
+
+    // Long enough to hold the first line of any real contact file
+    private static final int SNIFF_LIMIT = 4096;
+
+    public enum Format {CSV, VCARD}
+
+    // Called on the importing thread
+    public interface Listener {
+        void onProgress(int imported, long bytesRead, long totalBytes);
+    }
+
+    public static class Result {
+        public final int imported;
+        // Records parsed, including skipped ones and any in the batch lost to an error
+        public final int read;
+        public final int skipped;
+        public final boolean cancelled;
+        // Set when the import stopped early because of this failure
+        public final Exception error;
+        public final long elapsedMs;
+
+        Result(int imported, int read, int skipped, boolean cancelled, Exception error, long elapsedMs) {
+            this.imported = imported;
+            this.read = read;
+            this.skipped = skipped;
+            this.cancelled = cancelled;
+            this.error = error;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    private final DatabaseHelper db;
+
+    public BuddyImporter(DatabaseHelper db) {
+        this.db = db;
+    }
+
+    public Result importFrom(ContentResolver resolver, Uri uri, long userId,
+                             Listener listener, CancellationSignal signal) throws IOException {
+        long totalBytes = -1;
+        try (AssetFileDescriptor fd = resolver.openAssetFileDescriptor(uri, "r")) {
+            if (fd != null) totalBytes = fd.getLength();
+        } catch (IOException | SecurityException e) {
+            // Size is only used for progress
+        }
+
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) throw new IOException("Cannot open " + uri);
+        String mimeType = resolver.getType(uri);
+        return importFrom(in, totalBytes, mimeType, userId, listener, signal);
+    }
+
+    // Closes the stream. mimeType may be null, in which case the content decides.
+    public Result importFrom(InputStream in, long totalBytes, String mimeType, long userId,
+                             Listener listener, CancellationSignal signal) throws IOException {
+        long start = System.currentTimeMillis();
+        CountingInputStream counting = new CountingInputStream(in);
+
+        int imported = 0;
+        int read = 0;
+        int skipped = 0;
+        boolean cancelled = false;
+        Exception error = null;
+
+        try (BufferedReader text = new BufferedReader(new InputStreamReader(counting, StandardCharsets.UTF_8), 64 * 1024);
+             BuddyRecordReader records = openReader(text, detectFormat(text, mimeType));
+             DatabaseHelper.BuddyInserter inserter = db.openBuddyInserter(userId)) {
+            int inBatch = 0;
+            BuddyImportRecord record;
+            while ((record = records.next()) != null) {
+                if (signal != null && signal.isCanceled()) {
+                    // close() rolls back the open batch
+                    cancelled = true;
+                    break;
+                }
+                read++;
+                if (!record.hasName()) {
+                    skipped++;
+                    continue;
+                }
+
+                if (inBatch == 0) inserter.beginBatch();
+                if (inserter.insert(record)) {
+                    inBatch++;
+                } else {
+                    skipped++;
+                }
+
+                if (inBatch == BATCH_SIZE) {
+                    inserter.commitBatch();
+                    imported += inBatch;
+                    inBatch = 0;
+                    if (listener != null) listener.onProgress(imported, counting.count, totalBytes);
+                }
+            }
+            if (!cancelled && inBatch > 0) {
+                inserter.commitBatch();
+                imported += inBatch;
+            }
+        } catch (IOException | RuntimeException e) {
+            // close() has rolled back the open batch; earlier batches stay committed
+            Log.w(TAG, "Import stopped after " + imported + " of " + read + " records", e);
+            error = e;
+        }
+
+        if (listener != null) listener.onProgress(imported, counting.count, totalBytes);
+        long elapsed = System.currentTimeMillis() - start;
+        Log.d(TAG, "Imported " + imported + " skipped=" + skipped + " cancelled=" + cancelled + " in " + elapsed + "ms");
+        return new Result(imported, read, skipped, cancelled, error, elapsed);
+    }
+
+    private static BuddyRecordReader openReader(BufferedReader text, Format format) {
+        return format == Format.VCARD ? new VCardBuddyReader(text) : new CsvBuddyReader(text);
+    }
+
+    static Format detectFormat(BufferedReader text, String mimeType) throws IOException {
+        if (mimeType != null) {
+            if (mimeType.contains("vcard")) return Format.VCARD;
+            if (mimeType.contains("csv") || mimeType.contains("comma-separated")) return Format.CSV;
+        }
+
+        // Otherwise peek at the start of the content without consuming it
+        text.mark(SNIFF_LIMIT);
+        char[] head = new char[SNIFF_LIMIT];
+        int length = text.read(head, 0, head.length);
+        text.reset();
+        if (length <= 0) return Format.CSV;
+
+        String first = new String(head, 0, length).replace("\uFEFF", "").trim();
+        return first.regionMatches(true, 0, "BEGIN:VCARD", 0, 11) ? Format.VCARD : Format.CSV;
+    }
+
+    // Bytes pulled from the underlying stream, for progress
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
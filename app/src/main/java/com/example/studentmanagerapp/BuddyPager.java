@@ -0,0 +1,221 @@
+package com.example.studentmanagerapp;
+
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+// Keyset-paginated source for the buddy list. Pages are ordered by (name, id)
+// and each one starts right after the last row of the previous page, so the
+// cost of a page does not depend on how far down the list it is. The first
+// page goes through the SearchScheduler; further pages load as the list
+// scrolls within PREFETCH_DISTANCE rows of the end.
+public class BuddyPager {
+
+    public interface Listener {
+        void onReset(List<BuddyRow> rows);
+
+        void onAppended(List<BuddyRow> rows);
+
+        // A page could not be read; scrolling again retries it
+        void onLoadFailed(RuntimeException e);
+    }
+
+    private static final String TAG = "BuddyPager";
+
+    public static final int PAGE_SIZE = 50;
+    public static final int PREFETCH_DISTANCE = 20;
+
+    // Recently loaded pages across filters, so flipping back to a filter is instant
+    private static final int CACHED_PAGES = 16;
+
+    private static class Page {
+        final BuddyFilter filter;
+        final List<BuddyRow> rows;
+        final int limit;
+        final boolean last;
+
+        Page(BuddyFilter filter, List<BuddyRow> rows, int limit) {
+            this.filter = filter;
+            this.rows = rows;
+            this.limit = limit;
+            this.last = rows.size() < limit;
+        }
+    }
+
+    private final DatabaseHelper db;
+    private final long userId;
+    private final Executor executor;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final SearchScheduler<Page> firstPageScheduler;
+    private final LruCache<String, Page> pageCache = new LruCache<>(CACHED_PAGES);
+
+    // Main thread only
+    private BuddyFilter filter = new BuddyFilter("", 0);
+    private int generation;
+    private boolean firstPagePending;
+    private int firstPageLimit;
+    private boolean firstPageFailed;
+    private boolean loadingMore;
+    private boolean endReached;
+    private int loadedPages;
+    private int loadedRows;
+    private BuddyRow lastRow;
+
+    public BuddyPager(DatabaseHelper db, long userId, Executor executor, Listener listener) {
+        this.db = db;
+        this.userId = userId;
+        this.executor = executor;
+        this.listener = listener;
+        this.firstPageScheduler = new SearchScheduler<>(executor, this::onFirstPage, this::onFirstPageFailed);
+    }
+
+    public void attach(RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                RecyclerView.LayoutManager lm = rv.getLayoutManager();
+                RecyclerView.Adapter<?> adapter = rv.getAdapter();
+                if (!(lm instanceof LinearLayoutManager) || adapter == null) return;
+                int lastVisible = ((LinearLayoutManager) lm).findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadMore();
+                }
+            }
+        });
+    }
+
+    public void setFilter(BuddyFilter newFilter, long debounceMs) {
+        filter = newFilter;
+        Page cached = pageCache.get(pageKey(newFilter, 0));
+        if (cached != null) {
+            startFirstPage();
+            firstPageScheduler.cancel();
+            onFirstPage(cached);
+            return;
+        }
+        loadFirstPage(PAGE_SIZE, debounceMs);
+    }
+
+    // Call after any write. Cached pages are dropped and everything loaded so far
+    // is re-read in one go, so the list keeps its length and the adapter's diff
+    // only touches the rows that actually changed.
+    public void refresh() {
+        invalidate();
+        int pages = Math.max(1, (loadedRows + PAGE_SIZE - 1) / PAGE_SIZE);
+        loadFirstPage(pages * PAGE_SIZE, 0);
+    }
+
+    public void invalidate() {
+        pageCache.evictAll();
+    }
+
+    private void startFirstPage() {
+        generation++;
+        loadingMore = false;
+        firstPagePending = true;
+        firstPageFailed = false;
+    }
+
+    private void loadFirstPage(int limit, long debounceMs) {
+        startFirstPage();
+        firstPageLimit = limit;
+        BuddyFilter requested = filter;
+        firstPageScheduler.schedule(signal -> loadPage(requested, null, limit, signal), debounceMs);
+    }
+
+    public String getStats() {
+        return firstPageScheduler.getStats();
+    }
+
+    public void cancel() {
+        firstPageScheduler.cancel();
+        generation++;
+    }
+
+    private void onFirstPage(Page page) {
+        // A refresh can span several pages; only a plain first page is cached
+        if (page.limit == PAGE_SIZE) {
+            pageCache.put(pageKey(page.filter, 0), page);
+        }
+        firstPagePending = false;
+        loadedPages = page.limit / PAGE_SIZE;
+        loadedRows = page.rows.size();
+        endReached = page.last;
+        lastRow = page.rows.isEmpty() ? null : page.rows.get(page.rows.size() - 1);
+        listener.onReset(page.rows);
+    }
+
+    // The list still shows the previous rows; the next scroll asks for the page again
+    private void onFirstPageFailed(RuntimeException e) {
+        firstPagePending = false;
+        firstPageFailed = true;
+        listener.onLoadFailed(e);
+    }
+
+    private void loadMore() {
+        if (firstPageFailed) {
+            loadFirstPage(firstPageLimit, 0);
+            return;
+        }
+        if (firstPagePending || loadingMore || endReached) return;
+
+        BuddyFilter requested = filter;
+        int pageIndex = loadedPages;
+        Page cached = pageCache.get(pageKey(requested, pageIndex));
+        if (cached != null) {
+            onNextPage(cached);
+            return;
+        }
+
+        loadingMore = true;
+        int gen = generation;
+        BuddyRow after = lastRow;
+        executor.execute(() -> {
+            Page page;
+            try {
+                page = loadPage(requested, after, PAGE_SIZE, null);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Could not load page " + pageIndex + " of " + requested.key(), e);
+                mainHandler.post(() -> {
+                    if (gen != generation) return;
+                    loadingMore = false;
+                    listener.onLoadFailed(e);
+                });
+                return;
+            }
+            mainHandler.post(() -> {
+                // Filter changed while this page was loading
+                if (gen != generation) return;
+                loadingMore = false;
+                pageCache.put(pageKey(requested, pageIndex), page);
+                onNextPage(page);
+            });
+        });
+    }
+
+    private void onNextPage(Page page) {
+        loadedPages++;
+        loadedRows += page.rows.size();
+        endReached = page.last;
+        if (!page.rows.isEmpty()) {
+            lastRow = page.rows.get(page.rows.size() - 1);
+            listener.onAppended(page.rows);
+        }
+    }
+
+    private Page loadPage(BuddyFilter requested, BuddyRow after, int limit, CancellationSignal signal) {
+        return new Page(requested, BuddyRow.readAll(db.getBuddyPage(userId, requested, after, limit, signal)), limit);
+    }
+
+    private static String pageKey(BuddyFilter filter, int pageIndex) {
+        return filter.key() + "#" + pageIndex;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.studentmanagerapp;
+
+// Named column lists for buddy queries, so each screen reads only what it renders.
+// None of the list or birthday projections touch the photo columns beyond the key.
+public class BuddyProjection {
+
+    // A row of the main list: name, phone and the key of the thumbnail to load
+    public static final String LIST_ROW =
+            DatabaseHelper.COL_BUDDY_ID + ", " +
+            DatabaseHelper.COL_BUDDY_NAME + ", " +
+            DatabaseHelper.COL_BUDDY_PHONE + ", " +
+            DatabaseHelper.COL_BUDDY_PHOTO_KEY;
+
+    // Everything the edit and options dialogs show
+    public static final String DETAIL =
+            DatabaseHelper.COL_BUDDY_ID + ", " +
+            DatabaseHelper.COL_BUDDY_NAME + ", " +
+            DatabaseHelper.COL_BUDDY_GENDER + ", " +
+            DatabaseHelper.COL_BUDDY_DOB + ", " +
+            DatabaseHelper.COL_BUDDY_PHONE + ", " +
+            DatabaseHelper.COL_BUDDY_EMAIL + ", " +
+            DatabaseHelper.COL_BUDDY_PHOTO_KEY + ", " +
+            DatabaseHelper.COL_BUDDY_PHOTO_WIDTH + ", " +
+            DatabaseHelper.COL_BUDDY_PHOTO_HEIGHT;
+
+    // Upcoming birthday lookups
+    public static final String BIRTHDAY =
+            DatabaseHelper.COL_BUDDY_ID + ", " +
+            DatabaseHelper.COL_BUDDY_NAME + ", " +
+            DatabaseHelper.COL_BUDDY_DOB + ", " +
+            DatabaseHelper.COL_BUDDY_BIRTH_MONTH + ", " +
+            DatabaseHelper.COL_BUDDY_BIRTH_DAY + ", " +
+            DatabaseHelper.COL_BUDDY_BIRTH_KEY;
+
+    // Export: every user-entered field plus the photo to bundle
+    public static final String EXPORT =
+            DatabaseHelper.COL_BUDDY_NAME + ", " +
+            DatabaseHelper.COL_BUDDY_GENDER + ", " +
+            DatabaseHelper.COL_BUDDY_DOB + ", " +
+            DatabaseHelper.COL_BUDDY_PHONE + ", " +
+            DatabaseHelper.COL_BUDDY_EMAIL + ", " +
+            DatabaseHelper.COL_BUDDY_PHOTO_KEY;
+
+    // Sending a message
+    public static final String CONTACT =
+            DatabaseHelper.COL_BUDDY_ID + ", " +
+            DatabaseHelper.COL_BUDDY_NAME + ", " +
+            DatabaseHelper.COL_BUDDY_PHONE;
+}
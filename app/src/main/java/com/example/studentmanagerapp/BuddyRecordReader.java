@@ -0,0 +1,12 @@
+package com.example.studentmanagerapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Pulls contacts one at a time out of an import file, so memory use does not
+// grow with the size of the file.
+public interface BuddyRecordReader extends Closeable {
+
+    // null at the end of the input
+    BuddyImportRecord next() throws IOException;
+}
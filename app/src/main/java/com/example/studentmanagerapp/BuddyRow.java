@@ -0,0 +1,55 @@
+package com.example.studentmanagerapp;
+
+import android.database.Cursor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// One row of the buddy list, copied out of the cursor so pages can be
+// cached and handed between threads without keeping a cursor open.
+public class BuddyRow {
+
+    public final long id;
+    public final String name;
+    public final String phone;
+    public final String photoKey;
+
+    // Hash of everything the row displays; a cheap first check when diffing lists
+    public final int contentVersion;
+
+    public BuddyRow(long id, String name, String phone, String photoKey) {
+        this.id = id;
+        this.name = name;
+        this.phone = phone;
+        this.photoKey = photoKey;
+        this.contentVersion = Objects.hash(name, phone, photoKey);
+    }
+
+    public boolean sameContentAs(BuddyRow other) {
+        return contentVersion == other.contentVersion
+                && Objects.equals(name, other.name)
+                && Objects.equals(phone, other.phone)
+                && Objects.equals(photoKey, other.photoKey);
+    }
+
+    // Reads every row of the cursor and closes it
+    public static List<BuddyRow> readAll(Cursor cursor) {
+        List<BuddyRow> rows = new ArrayList<>(cursor.getCount());
+        try {
+            int idIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_ID);
+            int nameIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_NAME);
+            int phoneIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHONE);
+            int photoIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHOTO_KEY);
+            while (cursor.moveToNext()) {
+                rows.add(new BuddyRow(
+                        cursor.getLong(idIndex),
+                        cursor.getString(nameIndex),
+                        cursor.getString(phoneIndex),
+                        cursor.getString(photoIndex)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return rows;
+    }
+}
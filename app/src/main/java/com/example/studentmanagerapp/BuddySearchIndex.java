@@ -0,0 +1,86 @@
+package com.example.studentmanagerapp;
+
+import android.database.sqlite.SQLiteDatabase;
+import java.util.Locale;
+
+// FTS4 index over buddy names and phone numbers. The virtual table shares its
+// docid with buddies.id and is kept in sync by triggers, so every write path
+// (single insert, bulk insert, update, delete) maintains it without extra code.
+// The owner is the table's language id, so FTS keeps each user's terms apart and
+// a search only reads the index entries of the user asking.
+public class BuddySearchIndex {
+
+    public static final String TABLE_FTS = "buddies_fts";
+    public static final String COL_NAME = "name";
+    public static final String COL_PHONE_DIGITS = "phone_digits";
+    public static final String COL_USER_ID = "user_id";
+
+    // Docids of one user's buddies matching an expression from toMatchQuery; binds (match, userId)
+    public static final String SQL_MATCH_FOR_USER = "SELECT docid FROM " + TABLE_FTS +
+            " WHERE " + TABLE_FTS + " MATCH ? AND " + COL_USER_ID + "=?";
+
+    private static final String TRIGGER_INSERT = "buddies_fts_ai";
+    private static final String TRIGGER_UPDATE = "buddies_fts_au";
+    private static final String TRIGGER_DELETE = "buddies_fts_ad";
+
+    public static void create(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE " + TABLE_FTS + " USING fts4(" +
+                COL_NAME + ", " + COL_PHONE_DIGITS + ", tokenize=unicode61, languageid=\"" + COL_USER_ID + "\")");
+
+        db.execSQL("CREATE TRIGGER " + TRIGGER_INSERT + " AFTER INSERT ON " + DatabaseHelper.TABLE_BUDDIES + " BEGIN " +
+                insertRowSql("NEW") + "; END");
+
+        // A row moves between language ids by being deleted and inserted again
+        db.execSQL("CREATE TRIGGER " + TRIGGER_UPDATE + " AFTER UPDATE OF " +
+                DatabaseHelper.COL_BUDDY_NAME + ", " + DatabaseHelper.COL_BUDDY_PHONE + ", " + DatabaseHelper.COL_BUDDY_USER_ID +
+                " ON " + DatabaseHelper.TABLE_BUDDIES + " BEGIN " +
+                "DELETE FROM " + TABLE_FTS + " WHERE docid=OLD." + DatabaseHelper.COL_BUDDY_ID + "; " +
+                insertRowSql("NEW") + "; END");
+
+        db.execSQL("CREATE TRIGGER " + TRIGGER_DELETE + " AFTER DELETE ON " + DatabaseHelper.TABLE_BUDDIES + " BEGIN " +
+                "DELETE FROM " + TABLE_FTS + " WHERE docid=OLD." + DatabaseHelper.COL_BUDDY_ID + "; END");
+    }
+
+    public static void backfill(SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + TABLE_FTS);
+        db.execSQL("INSERT INTO " + TABLE_FTS + "(docid, " + COL_NAME + ", " + COL_PHONE_DIGITS + ", " + COL_USER_ID + ") SELECT " +
+                DatabaseHelper.COL_BUDDY_ID + ", " + DatabaseHelper.COL_BUDDY_NAME + ", " +
+                phoneTokensSql(DatabaseHelper.COL_BUDDY_PHONE) + ", " + DatabaseHelper.COL_BUDDY_USER_ID +
+                " FROM " + DatabaseHelper.TABLE_BUDDIES);
+    }
+
+    private static String insertRowSql(String row) {
+        return "INSERT INTO " + TABLE_FTS + "(docid, " + COL_NAME + ", " + COL_PHONE_DIGITS + ", " + COL_USER_ID + ") VALUES (" +
+                row + "." + DatabaseHelper.COL_BUDDY_ID + ", " + row + "." + DatabaseHelper.COL_BUDDY_NAME + ", " +
+                phoneTokensSql(row + "." + DatabaseHelper.COL_BUDDY_PHONE) + ", " + row + "." + DatabaseHelper.COL_BUDDY_USER_ID + ")";
+    }
+
+    // Phones are saved as +60 followed by the local number. Index the digits-only
+    // form plus the local number with and without its trunk 0, so a prefix search
+    // matches whichever way the user types it.
+    private static String phoneTokensSql(String column) {
+        String digits = "replace(replace(replace(replace(replace(replace(ifnull(" + column + ",''),'+',''),'-',''),' ',''),'(',''),')',''),'.','')";
+        return digits + " || CASE WHEN " + digits + " LIKE '60%' THEN ' ' || substr(" + digits + ",3) || ' 0' || substr(" + digits + ",3) ELSE '' END";
+    }
+
+    // Turns free text into an FTS MATCH expression where every term is a prefix
+    // match and all terms must be present. Terms are split wherever unicode61 splits
+    // the indexed text, so "O'Brien" searches for o* brien* rather than obrien*.
+    // Returns null when nothing searchable is left.
+    public static String toMatchQuery(String query) {
+        if (query == null) return null;
+        StringBuilder match = new StringBuilder();
+        int i = 0;
+        int length = query.length();
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(query.charAt(i))) i++;
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(query.charAt(i))) i++;
+            if (start == i) break;
+            if (match.length() > 0) match.append(' ');
+            // Lower case keeps terms from being read as AND/OR/NOT operators
+            match.append(query.substring(start, i).toLowerCase(Locale.ROOT)).append('*');
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.studentmanagerapp;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+// Measures how long a chart's onDraw takes and how much it allocates. A view
+// calls begin() and end() around its drawing when a probe is attached;
+// report() logs the totals, e.g. when an animation finishes. Allocation counts
+// come from the runtime's per-thread counters, which are only switched on
+// while a probe is attached, so release builds pay nothing. The counters are
+// process-wide, so they stay on until the last live probe is released.
+public class ChartDrawProbe {
+
+    private static final String TAG = "ChartDrawProbe";
+
+    // Probes not yet released; the counters run while this is above zero
+    private static int liveProbes;
+
+    private final String name;
+    private boolean released;
+
+    // Main thread only
+    private int frames;
+    private long totalNanos;
+    private long maxNanos;
+    private long allocCount;
+    private long allocBytes;
+
+    private long frameStartNanos;
+    private int frameStartCount;
+    private int frameStartBytes;
+
+    // The Debug allocation counters are deprecated but are still the only per-thread counts
+    @SuppressWarnings("deprecation")
+    public ChartDrawProbe(String name) {
+        this.name = name;
+        synchronized (ChartDrawProbe.class) {
+            if (liveProbes++ == 0) Debug.startAllocCounting();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    public void begin() {
+        frameStartCount = Debug.getThreadAllocCount();
+        frameStartBytes = Debug.getThreadAllocSize();
+        frameStartNanos = SystemClock.elapsedRealtimeNanos();
+    }
+
+    @SuppressWarnings("deprecation")
+    public void end() {
+        long elapsed = SystemClock.elapsedRealtimeNanos() - frameStartNanos;
+        allocCount += Debug.getThreadAllocCount() - frameStartCount;
+        allocBytes += Debug.getThreadAllocSize() - frameStartBytes;
+        totalNanos += elapsed;
+        if (elapsed > maxNanos) maxNanos = elapsed;
+        frames++;
+    }
+
+    public int getFrameCount() {
+        return frames;
+    }
+
+    public long getAllocationCount() {
+        return allocCount;
+    }
+
+    public long getAllocatedBytes() {
+        return allocBytes;
+    }
+
+    public String getStats() {
+        long avgMicros = frames > 0 ? totalNanos / frames / 1000 : 0;
+        return name + " frames=" + frames + " avgDrawUs=" + avgMicros + " maxDrawUs=" + (maxNanos / 1000) +
+                " allocs=" + allocCount + " allocBytes=" + allocBytes;
+    }
+
+    public void report() {
+        Log.d(TAG, getStats());
+    }
+
+    public void reset() {
+        frames = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+        allocCount = 0;
+        allocBytes = 0;
+    }
+
+    // Stops the runtime's allocation counters once no probe needs them
+    @SuppressWarnings("deprecation")
+    public void release() {
+        if (released) return;
+        released = true;
+        synchronized (ChartDrawProbe.class) {
+            if (--liveProbes == 0) Debug.stopAllocCounting();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.studentmanagerapp;
+
+import android.graphics.Canvas;
+
+// Draws one kind of chart for ChartView. layout() runs when the size or the
+// data changes and should precompute everything; draw() runs every frame of
+// the grow animation and must not allocate.
+public interface ChartRenderer {
+
+    // How a series longer than maxPoints() is reduced before layout
+    SeriesDownsampler.Mode getDownsampleMode();
+
+    // The most points that can be drawn legibly in the given width
+    int maxPoints(int width);
+
+    // Whether the view should be measured as a square
+    boolean isSquare();
+
+    void layout(ChartSeries series, int width, int height);
+
+    // progress runs from 0 to 1 over the animation
+    void draw(Canvas canvas, ChartSeries series, float progress);
+}
@@ -0,0 +1,98 @@
+package com.example.studentmanagerapp;
+
+import java.util.Arrays;
+
+// A chart's data as parallel primitive arrays: one value, label and colour per
+// category. Value labels are formatted when a point is added so renderers
+// never build strings while drawing. Buffers grow as needed and are kept on
+// clear(), so a series can be refilled without reallocating.
+public class ChartSeries {
+
+    private float[] values;
+    private int[] colors;
+    private String[] labels;
+    private String[] valueLabels;
+    private int size;
+
+    public ChartSeries() {
+        this(16);
+    }
+
+    public ChartSeries(int capacity) {
+        capacity = Math.max(capacity, 1);
+        values = new float[capacity];
+        colors = new int[capacity];
+        labels = new String[capacity];
+        valueLabels = new String[capacity];
+    }
+
+    public void add(float value, String label, int color) {
+        ensureCapacity(size + 1);
+        values[size] = value;
+        colors[size] = color;
+        labels[size] = label;
+        valueLabels[size] = formatValue(value);
+        size++;
+    }
+
+    public void clear() {
+        Arrays.fill(labels, 0, size, null);
+        Arrays.fill(valueLabels, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float getValue(int index) {
+        return values[index];
+    }
+
+    public int getColor(int index) {
+        return colors[index];
+    }
+
+    public String getLabel(int index) {
+        return labels[index];
+    }
+
+    public String getValueLabel(int index) {
+        return valueLabels[index];
+    }
+
+    public float max() {
+        float max = 0f;
+        for (int i = 0; i < size; i++) {
+            if (values[i] > max) max = values[i];
+        }
+        return max;
+    }
+
+    public float total() {
+        float total = 0f;
+        for (int i = 0; i < size; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    // Direct access for the downsampler; only the first size() entries are valid
+    float[] valuesArray() {
+        return values;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= values.length) return;
+        int newCapacity = Math.max(capacity, values.length * 2);
+        values = Arrays.copyOf(values, newCapacity);
+        colors = Arrays.copyOf(colors, newCapacity);
+        labels = Arrays.copyOf(labels, newCapacity);
+        valueLabels = Arrays.copyOf(valueLabels, newCapacity);
+    }
+
+    static String formatValue(float value) {
+        if (value == (int) value) return String.valueOf((int) value);
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.studentmanagerapp;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.animation.DecelerateInterpolator;
+
+// Hosts a ChartRenderer: keeps the series, downsamples it to what fits the
+// current width, lays it out on size or data changes and runs a single grow
+// animation. Frames only call the renderer's draw(), which allocates nothing.
+public class ChartView extends View {
+
+    private static final long DEFAULT_DURATION_MS = 1200;
+
+    private ChartRenderer renderer;
+    private ChartSeries source = new ChartSeries();
+
+    // What is actually drawn: the source, downsampled for the current width
+    private final ChartSeries drawn = new ChartSeries();
+
+    private float progress;
+    private ValueAnimator animator;
+    private ChartDrawProbe drawProbe;
+
+    public ChartView(Context context) {
+        super(context);
+        init();
+    }
+
+    public ChartView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public ChartView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    private void init() {
+        animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.setDuration(DEFAULT_DURATION_MS);
+        animator.setInterpolator(new DecelerateInterpolator());
+        animator.addUpdateListener(animation -> {
+            progress = (float) animation.getAnimatedValue();
+            invalidate();
+        });
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (drawProbe != null) drawProbe.report();
+            }
+        });
+    }
+
+    public void setRenderer(ChartRenderer renderer) {
+        this.renderer = renderer;
+        prepare();
+        requestLayout();
+        invalidate();
+    }
+
+    public void setAnimation(long durationMs, long startDelayMs) {
+        animator.setDuration(durationMs);
+        animator.setStartDelay(startDelayMs);
+    }
+
+    // Attaches a probe that times every onDraw and counts its allocations
+    public void setDrawProbe(ChartDrawProbe probe) {
+        this.drawProbe = probe;
+    }
+
+    // Shows a new series and grows it in. The series is read here and again on
+    // size changes, so the caller should not modify it while it is shown.
+    public void setSeries(ChartSeries series) {
+        source = series;
+        prepare();
+
+        // Restart rather than stack a second animation on top of a running one
+        animator.cancel();
+        animator.start();
+    }
+
+    private void prepare() {
+        int width = getWidth();
+        int height = getHeight();
+        if (renderer == null || width <= 0 || height <= 0) return;
+
+        SeriesDownsampler.downsample(source, renderer.maxPoints(width), renderer.getDownsampleMode(), drawn);
+        renderer.layout(drawn, width, height);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        prepare();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        animator.cancel();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (renderer == null || getWidth() <= 0 || getHeight() <= 0) return;
+
+        if (drawProbe != null) drawProbe.begin();
+        renderer.draw(canvas, drawn, progress);
+        if (drawProbe != null) drawProbe.end();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int height = MeasureSpec.getSize(heightMeasureSpec);
+
+        if (renderer != null && renderer.isSquare()) {
+            int size = Math.min(width, height);
+            setMeasuredDimension(size, size);
+        } else {
+            // Ensure minimum height for proper display
+            setMeasuredDimension(width, Math.max(height, 400));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.studentmanagerapp;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Streaming CSV reader for buddy imports. Handles quoted fields, doubled
+// quotes and line breaks inside quotes. Columns are matched by their header
+// names, which covers the usual contact-app exports; a file without a
+// recognisable header is read as name, gender, dob, phone, email.
+public class CsvBuddyReader implements BuddyRecordReader {
+
+    private static final int COLUMN_MISSING = -1;
+
+    private final Reader reader;
+
+    // Reused for every record
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+
+    private int nameColumn = 0;
+    private int firstNameColumn = COLUMN_MISSING;
+    private int lastNameColumn = COLUMN_MISSING;
+    private int genderColumn = 1;
+    private int dobColumn = 2;
+    private int phoneColumn = 3;
+    private int emailColumn = 4;
+
+    private boolean headerChecked;
+    private boolean endOfInput;
+    private int pushedBack = -2;
+
+    public CsvBuddyReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public BuddyImportRecord next() throws IOException {
+        while (readRecord()) {
+            if (!headerChecked) {
+                headerChecked = true;
+                if (readHeader()) continue;
+            }
+            if (isBlankRecord()) continue;
+            return toRecord();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private BuddyImportRecord toRecord() {
+        String name = column(nameColumn);
+        if (name == null || name.isEmpty()) {
+            String first = column(firstNameColumn);
+            String last = column(lastNameColumn);
+            name = join(first, last);
+        }
+        return new BuddyImportRecord(name, column(genderColumn), column(dobColumn),
+                column(phoneColumn), column(emailColumn));
+    }
+
+    private String column(int index) {
+        if (index < 0 || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String join(String first, String last) {
+        if (first == null) return last;
+        if (last == null) return first;
+        return first + " " + last;
+    }
+
+    private boolean isBlankRecord() {
+        for (String value : fields) {
+            if (!value.trim().isEmpty()) return false;
+        }
+        return true;
+    }
+
+    // Maps columns from the first record if it looks like a header
+    private boolean readHeader() {
+        int name = COLUMN_MISSING, first = COLUMN_MISSING, last = COLUMN_MISSING;
+        int gender = COLUMN_MISSING, dob = COLUMN_MISSING, phone = COLUMN_MISSING, email = COLUMN_MISSING;
+
+        for (int i = 0; i < fields.size(); i++) {
+            String header = fields.get(i).trim().toLowerCase(Locale.ROOT);
+            // Exports like "Phone 1 - Type" label the column next to the value
+            if (header.isEmpty() || header.contains("type") || header.contains("label")) continue;
+            if (header.equals("name") || header.equals("full name") || header.equals("display name")) {
+                if (name == COLUMN_MISSING) name = i;
+            } else if (header.equals("first name") || header.equals("given name")) {
+                if (first == COLUMN_MISSING) first = i;
+            } else if (header.equals("last name") || header.equals("family name") || header.equals("surname")) {
+                if (last == COLUMN_MISSING) last = i;
+            } else if (header.equals("gender") || header.equals("sex")) {
+                if (gender == COLUMN_MISSING) gender = i;
+            } else if (header.equals("dob") || header.contains("birth")) {
+                if (dob == COLUMN_MISSING) dob = i;
+            } else if (header.contains("phone") || header.contains("mobile")) {
+                if (phone == COLUMN_MISSING) phone = i;
+            } else if (header.contains("e-mail") || header.contains("email")) {
+                if (email == COLUMN_MISSING) email = i;
+            }
+        }
+
+        if (name == COLUMN_MISSING && first == COLUMN_MISSING && last == COLUMN_MISSING) {
+            return false;
+        }
+        nameColumn = name;
+        firstNameColumn = first;
+        lastNameColumn = last;
+        genderColumn = gender;
+        dobColumn = dob;
+        phoneColumn = phone;
+        emailColumn = email;
+        return true;
+    }
+
+    // Reads one record into fields; false at the end of the input
+    private boolean readRecord() throws IOException {
+        fields.clear();
+        if (endOfInput) return false;
+
+        field.setLength(0);
+        boolean inQuotes = false;
+        boolean sawAnything = false;
+        while (true) {
+            int ch = read();
+            if (ch == -1) {
+                endOfInput = true;
+                if (!sawAnything) return false;
+                fields.add(field.toString());
+                return true;
+            }
+            sawAnything = true;
+
+            if (inQuotes) {
+                if (ch == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) ch);
+                }
+            } else if (ch == '"') {
+                inQuotes = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r' || ch == '\n') {
+                if (ch == '\r') {
+                    int following = read();
+                    if (following != '\n') unread(following);
+                }
+                fields.add(field.toString());
+                return true;
+            } else if (ch != '\uFEFF') {
+                // A byte order mark is not data
+                field.append((char) ch);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int ch = pushedBack;
+            pushedBack = -2;
+            return ch;
+        }
+        return reader.read();
+    }
+
+    private void unread(int ch) {
+        pushedBack = ch;
+    }
+}
@@ -2,14 +2,33 @@ package com.example.studentmanagerapp;
 
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.CancellationSignal;
+import android.util.Base64;
+import android.util.Log;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
 
+    private static final String TAG = "DatabaseHelper";
+
     public static final String DATABASE_NAME = "BuddyApp.db";
-    public static final int DATABASE_VERSION = 9;
+    public static final int DATABASE_VERSION = 15;
+
+    // Rows converted per query while moving Base64 photos into the photo store.
+    // Kept small so a batch of ~40 KB strings fits comfortably in one CursorWindow.
+    private static final int PHOTO_MIGRATION_BATCH = 20;
+    private static final int BIRTHDAY_BACKFILL_BATCH = 500;
 
     // Users table
     public static final String TABLE_USERS = "users";
@@ -25,11 +44,118 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     public static final String COL_BUDDY_DOB = "dob";
     public static final String COL_BUDDY_PHONE = "phone";
     public static final String COL_BUDDY_EMAIL = "email";
+    // Legacy Base64 JPEG column, emptied by the version 10 migration
     public static final String COL_BUDDY_PHOTO = "photo";
+    public static final String COL_BUDDY_PHOTO_KEY = "photo_key";
+    public static final String COL_BUDDY_PHOTO_WIDTH = "photo_width";
+    public static final String COL_BUDDY_PHOTO_HEIGHT = "photo_height";
     public static final String COL_BUDDY_USER_ID = "user_id";
+    // Derived from dob on every write so month lookups can use an index
+    public static final String COL_BUDDY_BIRTH_MONTH = "birth_month";
+    public static final String COL_BUDDY_BIRTH_DAY = "birth_day";
+    // month * 100 + day, see BirthDates.keyOf
+    public static final String COL_BUDDY_BIRTH_KEY = "birth_key";
+
+    // Serves the (name, id) keyset order of the paged buddy list
+    private static final String INDEX_BUDDIES_USER_NAME = "idx_buddies_user_name";
+    // Lists sort and seek on this so a buddy without a name sorts first instead of
+    // breaking the keyset comparison; queries must spell it exactly like the index
+    private static final String SORT_NAME = "ifnull(" + COL_BUDDY_NAME + ",'')";
+    // Serves the month filter and monthly counts
+    private static final String INDEX_BUDDIES_USER_BIRTHDAY = "idx_buddies_user_birthday";
+    // Serves the upcoming birthdays range scan
+    private static final String INDEX_BUDDIES_USER_BIRTH_KEY = "idx_buddies_user_birth_key";
+
+    // Fixed query text is built once so the connection's prepared-statement cache keeps hitting
+    private static final String SQL_LIST_FOR_USER = "SELECT " + BuddyProjection.LIST_ROW + " FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_USER_ID + "=? ORDER BY " + SORT_NAME + " ASC";
+    private static final String SQL_DETAIL_BY_ID = "SELECT " + BuddyProjection.DETAIL + " FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_ID + "=?";
+    private static final String SQL_CONTACT_BY_ID = "SELECT " + BuddyProjection.CONTACT + " FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_ID + "=?";
+    private static final String SQL_SEARCH_FOR_USER = "SELECT " + BuddyProjection.LIST_ROW + " FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_ID + " IN (" + BuddySearchIndex.SQL_MATCH_FOR_USER + ") AND " +
+            COL_BUDDY_USER_ID + "=? ORDER BY " + SORT_NAME + " ASC";
+    private static final String SQL_LIST_BY_MONTH = "SELECT " + BuddyProjection.LIST_ROW + " FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_USER_ID + "=? AND " + COL_BUDDY_BIRTH_MONTH + "=? ORDER BY " + SORT_NAME + " ASC";
+    private static final String SQL_BIRTHDAYS_FOR_USER = "SELECT " + BuddyProjection.BIRTHDAY + " FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_USER_ID + "=? AND " + COL_BUDDY_DOB + " IS NOT NULL AND " + COL_BUDDY_DOB + " != ''";
+    // One primary-key lookup in user_stats; a counter that was never created reads as 0
+    private static final String SQL_USER_STAT = "SELECT ifnull((SELECT " + UserStats.COL_VALUE + " FROM " + UserStats.TABLE +
+            " WHERE " + UserStats.COL_USER_ID + "=? AND " + UserStats.COL_KEY + "=?), 0)";
+    private static final String SQL_USER_STATS = "SELECT " + UserStats.COL_KEY + ", " + UserStats.COL_VALUE +
+            " FROM " + UserStats.TABLE + " WHERE " + UserStats.COL_USER_ID + "=?";
+
+    private static final String SQL_REPORT_GROUPS = "SELECT " + COL_BUDDY_GENDER + ", " + COL_BUDDY_BIRTH_MONTH + ", COUNT(*) FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_USER_ID + "=? GROUP BY " + COL_BUDDY_GENDER + ", " + COL_BUDDY_BIRTH_MONTH;
+
+    private static final String SQL_EXPORT_FOR_USER = "SELECT " + BuddyProjection.EXPORT + " FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_USER_ID + "=? ORDER BY " + SORT_NAME + ", " + COL_BUDDY_ID;
+    private static final String SQL_PHOTO_KEYS_FOR_USER = "SELECT DISTINCT " + COL_BUDDY_PHOTO_KEY + " FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_USER_ID + "=? AND " + COL_BUDDY_PHOTO_KEY + " IS NOT NULL";
+    private static final String SQL_PHOTO_COUNT_FOR_USER = "SELECT COUNT(DISTINCT " + COL_BUDDY_PHOTO_KEY + ") FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_USER_ID + "=?";
+
+    private static final String SQL_INSERT_IMPORTED_BUDDY = "INSERT INTO " + TABLE_BUDDIES + " (" +
+            COL_BUDDY_NAME + ", " + COL_BUDDY_GENDER + ", " + COL_BUDDY_DOB + ", " + COL_BUDDY_PHONE + ", " +
+            COL_BUDDY_EMAIL + ", " + COL_BUDDY_USER_ID + ", " + COL_BUDDY_BIRTH_MONTH + ", " +
+            COL_BUDDY_BIRTH_DAY + ", " + COL_BUDDY_BIRTH_KEY + ", " + COL_BUDDY_PHOTO_KEY + ", " +
+            COL_BUDDY_PHOTO_WIDTH + ", " + COL_BUDDY_PHOTO_HEIGHT + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Rest of this year first, then from January; each half stops after limit rows of the index
+    private static final String SQL_UPCOMING_BIRTHDAYS =
+            "SELECT * FROM (SELECT " + BuddyProjection.BIRTHDAY + ", 0 AS wrapped FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_USER_ID + "=? AND " + COL_BUDDY_BIRTH_KEY + ">=? ORDER BY " + COL_BUDDY_BIRTH_KEY + " LIMIT ?)" +
+            " UNION ALL " +
+            "SELECT * FROM (SELECT " + BuddyProjection.BIRTHDAY + ", 1 AS wrapped FROM " + TABLE_BUDDIES +
+            " WHERE " + COL_BUDDY_USER_ID + "=? AND " + COL_BUDDY_BIRTH_KEY + "<? ORDER BY " + COL_BUDDY_BIRTH_KEY + " LIMIT ?)" +
+            " ORDER BY wrapped, " + COL_BUDDY_BIRTH_KEY + " LIMIT ?";
+
+    // How writes made through ContentValues show up in QueryMonitor
+    private static final String SQL_SHAPE_INSERT_USER = "INSERT INTO " + TABLE_USERS;
+    private static final String SQL_SHAPE_INSERT_BUDDY = "INSERT INTO " + TABLE_BUDDIES;
+    private static final String SQL_SHAPE_UPDATE_BUDDY = "UPDATE " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_ID + "=?";
+    private static final String SQL_SHAPE_DELETE_BUDDY = "DELETE FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_ID + "=?";
+    private static final String SQL_SHAPE_REBUILD_STATS = "REBUILD " + UserStats.TABLE + " WHERE " + UserStats.COL_USER_ID + "=?";
+
+    // One helper, and so one connection pool, for the whole process
+    private static DatabaseHelper instance;
 
-    public DatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    private final PhotoStore photoStore;
+    private final QueryMonitor monitor = QueryMonitor.get();
+    private final Map<String, SQLiteStatement> compiledStatements = new HashMap<>();
+
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            // Debuggable builds fail on main-thread database work and measure cursor windows
+            boolean debuggable = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+            QueryMonitor monitor = QueryMonitor.get();
+            monitor.setMainThreadPolicy(debuggable ? QueryMonitor.MainThreadPolicy.THROW : QueryMonitor.MainThreadPolicy.ALLOW);
+            monitor.setEstimateWindowBytes(debuggable);
+            instance = new DatabaseHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private DatabaseHelper(Context context) {
+        this(context, DATABASE_NAME, new PhotoStore(context));
+    }
+
+    // A separate database file and photo store, for benchmarks and load tests that must not touch the user's data
+    DatabaseHelper(Context context, String name, PhotoStore photoStore) {
+        super(context, name, QueryMonitor.get().cursorFactory(), DATABASE_VERSION);
+        this.photoStore = photoStore;
+    }
+
+    // Write-ahead logging lets the reader lane query while the writer lane commits
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        db.enableWriteAheadLogging();
+    }
+
+    public PhotoStore getPhotoStore() {
+        return photoStore;
     }
 
     @Override
@@ -47,8 +173,20 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 COL_BUDDY_PHONE + " TEXT," +
                 COL_BUDDY_EMAIL + " TEXT," +
                 COL_BUDDY_PHOTO + " TEXT," +
+                COL_BUDDY_PHOTO_KEY + " TEXT," +
+                COL_BUDDY_PHOTO_WIDTH + " INTEGER," +
+                COL_BUDDY_PHOTO_HEIGHT + " INTEGER," +
                 COL_BUDDY_USER_ID + " INTEGER," +
+                COL_BUDDY_BIRTH_MONTH + " INTEGER," +
+                COL_BUDDY_BIRTH_DAY + " INTEGER," +
+                COL_BUDDY_BIRTH_KEY + " INTEGER," +
                 "FOREIGN KEY(" + COL_BUDDY_USER_ID + ") REFERENCES " + TABLE_USERS + "(" + COL_USER_ID + "))");
+
+        createUserNameIndex(db);
+        createBirthdayIndex(db);
+        createBirthKeyIndex(db);
+        BuddySearchIndex.create(db);
+        UserStats.create(db);
     }
 
     @Override
@@ -56,7 +194,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         if (oldVersion < 9) {
             // Check if photo column exists before adding it
             try {
-                Cursor cursor = db.rawQuery("SELECT " + COL_BUDDY_PHOTO + " FROM " + TABLE_BUDDIES + " LIMIT 1", null);
+                Cursor cursor = rawQuery("onUpgrade", db, "SELECT " + COL_BUDDY_PHOTO + " FROM " + TABLE_BUDDIES + " LIMIT 1", null);
                 cursor.close();
                 // Column exists, no need to add
             } catch (Exception e) {
@@ -64,6 +202,145 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 db.execSQL("ALTER TABLE " + TABLE_BUDDIES + " ADD COLUMN " + COL_BUDDY_PHOTO + " TEXT");
             }
         }
+        if (oldVersion < 10) {
+            db.execSQL("ALTER TABLE " + TABLE_BUDDIES + " ADD COLUMN " + COL_BUDDY_PHOTO_KEY + " TEXT");
+            db.execSQL("ALTER TABLE " + TABLE_BUDDIES + " ADD COLUMN " + COL_BUDDY_PHOTO_WIDTH + " INTEGER");
+            db.execSQL("ALTER TABLE " + TABLE_BUDDIES + " ADD COLUMN " + COL_BUDDY_PHOTO_HEIGHT + " INTEGER");
+            migratePhotosToStore(db);
+        }
+        if (oldVersion < 11) {
+            BuddySearchIndex.create(db);
+            BuddySearchIndex.backfill(db);
+        }
+        if (oldVersion < 12) {
+            createUserNameIndex(db);
+        }
+        if (oldVersion < 13) {
+            db.execSQL("ALTER TABLE " + TABLE_BUDDIES + " ADD COLUMN " + COL_BUDDY_BIRTH_MONTH + " INTEGER");
+            db.execSQL("ALTER TABLE " + TABLE_BUDDIES + " ADD COLUMN " + COL_BUDDY_BIRTH_DAY + " INTEGER");
+            backfillBirthDays(db);
+            createBirthdayIndex(db);
+        }
+        if (oldVersion < 14) {
+            db.execSQL("ALTER TABLE " + TABLE_BUDDIES + " ADD COLUMN " + COL_BUDDY_BIRTH_KEY + " INTEGER");
+            db.execSQL("UPDATE " + TABLE_BUDDIES + " SET " + COL_BUDDY_BIRTH_KEY + "=" +
+                    COL_BUDDY_BIRTH_MONTH + " * 100 + " + COL_BUDDY_BIRTH_DAY +
+                    " WHERE " + COL_BUDDY_BIRTH_MONTH + " IS NOT NULL");
+            createBirthKeyIndex(db);
+        }
+        if (oldVersion < 15) {
+            UserStats.create(db);
+            UserStats.rebuild(db);
+        }
+    }
+
+    private void createBirthdayIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_BUDDIES_USER_BIRTHDAY + " ON " + TABLE_BUDDIES +
+                "(" + COL_BUDDY_USER_ID + ", " + COL_BUDDY_BIRTH_MONTH + ", " + COL_BUDDY_BIRTH_DAY + ")");
+    }
+
+    private void createBirthKeyIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_BUDDIES_USER_BIRTH_KEY + " ON " + TABLE_BUDDIES +
+                "(" + COL_BUDDY_USER_ID + ", " + COL_BUDDY_BIRTH_KEY + ")");
+    }
+
+    private void createUserNameIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + INDEX_BUDDIES_USER_NAME + " ON " + TABLE_BUDDIES +
+                "(" + COL_BUDDY_USER_ID + ", " + SORT_NAME + ")");
+    }
+
+    // Moves every Base64 photo into the photo store, one small batch at a time,
+    // and clears the TEXT column so list queries no longer carry the bytes
+    private void migratePhotosToStore(SQLiteDatabase db) {
+        SQLiteStatement update = db.compileStatement("UPDATE " + TABLE_BUDDIES + " SET " +
+                COL_BUDDY_PHOTO_KEY + "=?, " + COL_BUDDY_PHOTO_WIDTH + "=?, " +
+                COL_BUDDY_PHOTO_HEIGHT + "=?, " + COL_BUDDY_PHOTO + "=NULL WHERE " + COL_BUDDY_ID + "=?");
+        long lastId = 0;
+        int migrated = 0;
+        try {
+            while (true) {
+                Cursor cursor = rawQuery("migratePhotosToStore", db, "SELECT " + COL_BUDDY_ID + ", " + COL_BUDDY_PHOTO +
+                                " FROM " + TABLE_BUDDIES +
+                                " WHERE " + COL_BUDDY_ID + ">? AND " + COL_BUDDY_PHOTO + " IS NOT NULL AND " + COL_BUDDY_PHOTO + " != ''" +
+                                " ORDER BY " + COL_BUDDY_ID + " LIMIT " + PHOTO_MIGRATION_BATCH,
+                        new String[]{String.valueOf(lastId)});
+                int rows = 0;
+                try {
+                    while (cursor.moveToNext()) {
+                        rows++;
+                        lastId = cursor.getLong(0);
+                        PhotoStore.Entry entry = null;
+                        try {
+                            byte[] jpeg = Base64.decode(cursor.getString(1), Base64.DEFAULT);
+                            entry = photoStore.put(jpeg);
+                        } catch (IllegalArgumentException | IOException e) {
+                            // Unreadable photo: drop it rather than keep a broken row
+                            Log.w(TAG, "Dropping unreadable photo for buddy " + lastId, e);
+                        }
+
+                        update.clearBindings();
+                        if (entry != null) {
+                            update.bindString(1, entry.key);
+                            update.bindLong(2, entry.width);
+                            update.bindLong(3, entry.height);
+                            migrated++;
+                        } else {
+                            update.bindNull(1);
+                            update.bindNull(2);
+                            update.bindNull(3);
+                        }
+                        update.bindLong(4, lastId);
+                        update.executeUpdateDelete();
+                    }
+                } finally {
+                    cursor.close();
+                }
+                if (rows < PHOTO_MIGRATION_BATCH) break;
+            }
+        } finally {
+            update.close();
+        }
+        // Empty strings never held a photo; normalise them so the column is uniformly NULL
+        db.execSQL("UPDATE " + TABLE_BUDDIES + " SET " + COL_BUDDY_PHOTO + "=NULL WHERE " + COL_BUDDY_PHOTO + " IS NOT NULL");
+        Log.i(TAG, "Moved " + migrated + " photos into the photo store");
+    }
+
+    // Fills birth_month and birth_day through BirthDates, the same parser the write
+    // paths use, so unpadded dates and dates with stray spaces are picked up too
+    private void backfillBirthDays(SQLiteDatabase db) {
+        SQLiteStatement update = db.compileStatement("UPDATE " + TABLE_BUDDIES + " SET " +
+                COL_BUDDY_BIRTH_MONTH + "=?, " + COL_BUDDY_BIRTH_DAY + "=? WHERE " + COL_BUDDY_ID + "=?");
+        long lastId = 0;
+        int filled = 0;
+        try {
+            while (true) {
+                Cursor cursor = rawQuery("backfillBirthDays", db, "SELECT " + COL_BUDDY_ID + ", " + COL_BUDDY_DOB +
+                                " FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_ID + ">? AND " + COL_BUDDY_DOB + " IS NOT NULL" +
+                                " ORDER BY " + COL_BUDDY_ID + " LIMIT " + BIRTHDAY_BACKFILL_BATCH,
+                        new String[]{String.valueOf(lastId)});
+                int rows = 0;
+                try {
+                    while (cursor.moveToNext()) {
+                        rows++;
+                        lastId = cursor.getLong(0);
+                        String dob = cursor.getString(1);
+                        int month = BirthDates.monthOf(dob);
+                        if (month == 0) continue;
+                        update.bindLong(1, month);
+                        update.bindLong(2, BirthDates.dayOf(dob));
+                        update.bindLong(3, lastId);
+                        update.executeUpdateDelete();
+                        filled++;
+                    }
+                } finally {
+                    cursor.close();
+                }
+                if (rows < BIRTHDAY_BACKFILL_BATCH) break;
+            }
+        } finally {
+            update.close();
+        }
+        Log.i(TAG, "Filled birth month and day for " + filled + " buddies");
     }
 
     // --- USER METHODS ---
@@ -73,20 +350,32 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         ContentValues cv = new ContentValues();
         cv.put(COL_USERNAME, username);
         cv.put(COL_PASSWORD, password);
-        return db.insert(TABLE_USERS, null, cv) != -1;
+        long start = monitor.begin("insertUser", SQL_SHAPE_INSERT_USER);
+        boolean inserted = db.insert(TABLE_USERS, null, cv) != -1;
+        monitor.end("insertUser", SQL_SHAPE_INSERT_USER, start, inserted ? 1 : 0);
+        return inserted;
     }
 
     public Cursor checkLoginAndGetId(String username, String password) {
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.rawQuery("SELECT " + COL_USER_ID + " FROM " + TABLE_USERS +
+        return rawQuery("checkLoginAndGetId", db, "SELECT " + COL_USER_ID + " FROM " + TABLE_USERS +
                         " WHERE " + COL_USERNAME + "=? AND " + COL_PASSWORD + "=?",
                 new String[]{username, password});
     }
 
+    // Opens the database, running onCreate or any pending upgrade, and runs the
+    // login lookup once so the first sign-in finds the users pages in cache
+    public void warmUp() {
+        getWritableDatabase();
+        try (Cursor cursor = checkLoginAndGetId("", "")) {
+            cursor.moveToFirst();
+        }
+    }
+
     // Get username by userId
     public Cursor getUsernameByUserId(long userId) {
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.rawQuery(
+        return rawQuery("getUsernameByUserId", db,
                 "SELECT " + COL_USERNAME + " FROM " + TABLE_USERS + " WHERE " + COL_USER_ID + "=?",
                 new String[]{String.valueOf(userId)}
         );
@@ -94,100 +383,418 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     // --- BUDDY CRUD METHODS ---
 
-    public boolean insertBuddy(String name, String gender, String dob, String phone, String email, String photo, long userId) {
+    // photo may be null when the buddy has no picture
+    public boolean insertBuddy(String name, String gender, String dob, String phone, String email, PhotoStore.Entry photo, long userId) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues cv = new ContentValues();
         cv.put(COL_BUDDY_NAME, name);
         cv.put(COL_BUDDY_GENDER, gender);
         cv.put(COL_BUDDY_DOB, dob);
+        putBirthDate(cv, dob);
         cv.put(COL_BUDDY_PHONE, phone);
         cv.put(COL_BUDDY_EMAIL, email);
-        cv.put(COL_BUDDY_PHOTO, photo);
+        putPhoto(cv, photo);
         cv.put(COL_BUDDY_USER_ID, userId);
-        return db.insert(TABLE_BUDDIES, null, cv) != -1;
+        long start = monitor.begin("insertBuddy", SQL_SHAPE_INSERT_BUDDY);
+        boolean inserted = db.insert(TABLE_BUDDIES, null, cv) != -1;
+        monitor.end("insertBuddy", SQL_SHAPE_INSERT_BUDDY, start, inserted ? 1 : 0);
+        return inserted;
     }
 
-    public boolean updateBuddy(String id, String name, String gender, String dob, String phone, String email, String photo) {
+    // Bulk inserts for imports: one compiled statement rebound for every row,
+    // with the caller deciding where each transaction starts and ends
+    public BuddyInserter openBuddyInserter(long userId) {
+        return new BuddyInserter(getWritableDatabase(), userId);
+    }
+
+    public static class BuddyInserter implements Closeable {
+        private final SQLiteDatabase db;
+        private final SQLiteStatement insert;
+        private final long userId;
+        private boolean inTransaction;
+        private long batchStart;
+        private int batchRows;
+
+        BuddyInserter(SQLiteDatabase db, long userId) {
+            this.db = db;
+            this.userId = userId;
+            this.insert = db.compileStatement(SQL_INSERT_IMPORTED_BUDDY);
+        }
+
+        public void beginBatch() {
+            batchStart = QueryMonitor.get().begin("BuddyInserter.batch", SQL_INSERT_IMPORTED_BUDDY);
+            batchRows = 0;
+            db.beginTransactionNonExclusive();
+            inTransaction = true;
+        }
+
+        public boolean insert(BuddyImportRecord record) {
+            return insert(record, null);
+        }
+
+        // photo must already be in the PhotoStore
+        public boolean insert(BuddyImportRecord record, PhotoStore.Entry photo) {
+            insert.clearBindings();
+            bindOrNull(1, record.name);
+            bindOrNull(2, record.gender);
+            bindOrNull(3, record.dob);
+            bindOrNull(4, record.phone);
+            bindOrNull(5, record.email);
+            insert.bindLong(6, userId);
+            int month = BirthDates.monthOf(record.dob);
+            if (month > 0) {
+                insert.bindLong(7, month);
+                insert.bindLong(8, BirthDates.dayOf(record.dob));
+                insert.bindLong(9, BirthDates.keyOf(record.dob));
+            }
+            if (photo != null) {
+                insert.bindString(10, photo.key);
+                insert.bindLong(11, photo.width);
+                insert.bindLong(12, photo.height);
+            }
+            boolean inserted = insert.executeInsert() != -1;
+            if (inserted) batchRows++;
+            return inserted;
+        }
+
+        public void commitBatch() {
+            db.setTransactionSuccessful();
+            db.endTransaction();
+            inTransaction = false;
+            // One sample per batch, from begin to commit, so the timing includes the fsync
+            QueryMonitor.get().end("BuddyInserter.batch", SQL_INSERT_IMPORTED_BUDDY, batchStart, batchRows);
+        }
+
+        // Rows of an uncommitted batch are rolled back
+        @Override
+        public void close() {
+            if (inTransaction) {
+                db.endTransaction();
+                inTransaction = false;
+            }
+            insert.close();
+        }
+
+        private void bindOrNull(int index, String value) {
+            if (value != null) {
+                insert.bindString(index, value);
+            } else {
+                insert.bindNull(index);
+            }
+        }
+    }
+
+    public boolean updateBuddy(String id, String name, String gender, String dob, String phone, String email, PhotoStore.Entry photo) {
         SQLiteDatabase db = this.getWritableDatabase();
+        String oldKey = getPhotoKey(db, id);
         ContentValues cv = new ContentValues();
         cv.put(COL_BUDDY_NAME, name);
         cv.put(COL_BUDDY_GENDER, gender);
         cv.put(COL_BUDDY_DOB, dob);
+        putBirthDate(cv, dob);
         cv.put(COL_BUDDY_PHONE, phone);
         cv.put(COL_BUDDY_EMAIL, email);
-        cv.put(COL_BUDDY_PHOTO, photo);
-        return db.update(TABLE_BUDDIES, cv, COL_BUDDY_ID + "=?", new String[]{id}) > 0;
+        putPhoto(cv, photo);
+        long start = monitor.begin("updateBuddy", SQL_SHAPE_UPDATE_BUDDY);
+        int rows = db.update(TABLE_BUDDIES, cv, COL_BUDDY_ID + "=?", new String[]{id});
+        monitor.end("updateBuddy", SQL_SHAPE_UPDATE_BUDDY, start, rows);
+        boolean updated = rows > 0;
+        if (updated && oldKey != null && (photo == null || !oldKey.equals(photo.key))) {
+            releasePhotoIfUnused(db, oldKey);
+        }
+        return updated;
     }
 
     public boolean deleteBuddy(String id) {
         SQLiteDatabase db = this.getWritableDatabase();
-        return db.delete(TABLE_BUDDIES, COL_BUDDY_ID + "=?", new String[]{id}) > 0;
+        String oldKey = getPhotoKey(db, id);
+        long start = monitor.begin("deleteBuddy", SQL_SHAPE_DELETE_BUDDY);
+        int rows = db.delete(TABLE_BUDDIES, COL_BUDDY_ID + "=?", new String[]{id});
+        monitor.end("deleteBuddy", SQL_SHAPE_DELETE_BUDDY, start, rows);
+        boolean deleted = rows > 0;
+        if (deleted && oldKey != null) {
+            releasePhotoIfUnused(db, oldKey);
+        }
+        return deleted;
+    }
+
+    private void putBirthDate(ContentValues cv, String dob) {
+        int month = BirthDates.monthOf(dob);
+        if (month > 0) {
+            cv.put(COL_BUDDY_BIRTH_MONTH, month);
+            cv.put(COL_BUDDY_BIRTH_DAY, BirthDates.dayOf(dob));
+            cv.put(COL_BUDDY_BIRTH_KEY, BirthDates.keyOf(dob));
+        } else {
+            cv.putNull(COL_BUDDY_BIRTH_MONTH);
+            cv.putNull(COL_BUDDY_BIRTH_DAY);
+            cv.putNull(COL_BUDDY_BIRTH_KEY);
+        }
+    }
+
+    private void putPhoto(ContentValues cv, PhotoStore.Entry photo) {
+        if (photo != null) {
+            cv.put(COL_BUDDY_PHOTO_KEY, photo.key);
+            cv.put(COL_BUDDY_PHOTO_WIDTH, photo.width);
+            cv.put(COL_BUDDY_PHOTO_HEIGHT, photo.height);
+        } else {
+            cv.putNull(COL_BUDDY_PHOTO_KEY);
+            cv.putNull(COL_BUDDY_PHOTO_WIDTH);
+            cv.putNull(COL_BUDDY_PHOTO_HEIGHT);
+        }
+    }
+
+    private String getPhotoKey(SQLiteDatabase db, String id) {
+        try (Cursor cursor = rawQuery("getPhotoKey", db, "SELECT " + COL_BUDDY_PHOTO_KEY + " FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_ID + "=?",
+                new String[]{id})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    // Photos are shared by content hash, so the file only goes once no row points at it
+    private void releasePhotoIfUnused(SQLiteDatabase db, String key) {
+        try (Cursor cursor = rawQuery("releasePhotoIfUnused", db, "SELECT 1 FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_PHOTO_KEY + "=? LIMIT 1",
+                new String[]{key})) {
+            if (!cursor.moveToFirst()) {
+                photoStore.delete(key);
+            }
+        }
     }
 
     public Cursor getAllBuddiesForUser(long userId) {
+        return getAllBuddiesForUser(userId, null);
+    }
+
+    public Cursor getAllBuddiesForUser(long userId, CancellationSignal signal) {
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.rawQuery("SELECT * FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_USER_ID + "=? ORDER BY " + COL_BUDDY_NAME + " ASC",
-                new String[]{String.valueOf(userId)});
+        return rawQuery("getAllBuddiesForUser", db, SQL_LIST_FOR_USER, new String[]{String.valueOf(userId)}, signal);
     }
 
+    // Full record for the edit and options dialogs
     public Cursor getBuddyById(long id) {
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.rawQuery("SELECT * FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_ID + "=?",
-                new String[]{String.valueOf(id)});
+        return rawQuery("getBuddyById", db, SQL_DETAIL_BY_ID, new String[]{String.valueOf(id)});
     }
 
+    // Just name and phone, for sending a message
+    public Cursor getBuddyContact(long id) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return rawQuery("getBuddyContact", db, SQL_CONTACT_BY_ID, new String[]{String.valueOf(id)});
+    }
+
+    // Prefix search on name words and phone digits through the FTS index
     public Cursor searchBuddiesForUser(String query, long userId) {
+        return searchBuddiesForUser(query, userId, null);
+    }
+
+    public Cursor searchBuddiesForUser(String query, long userId, CancellationSignal signal) {
+        String match = BuddySearchIndex.toMatchQuery(query);
+        if (match == null) return getAllBuddiesForUser(userId, signal);
+
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.rawQuery("SELECT * FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_USER_ID + "=? AND (" + COL_BUDDY_NAME + " LIKE ? OR " + COL_BUDDY_PHONE + " LIKE ?)",
-                new String[]{String.valueOf(userId), "%" + query + "%", "%" + query + "%"});
+        return rawQuery("searchBuddiesForUser", db, SQL_SEARCH_FOR_USER, new String[]{match, String.valueOf(userId), String.valueOf(userId)}, signal);
     }
 
     public Cursor getBuddiesByMonth(long userId, String month) {
+        return getBuddiesByMonth(userId, month, null);
+    }
+
+    public Cursor getBuddiesByMonth(long userId, String month, CancellationSignal signal) {
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.rawQuery("SELECT * FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_USER_ID + "=? AND " + COL_BUDDY_DOB + " LIKE ?",
-                new String[]{String.valueOf(userId), "%-" + month + "-%"});
+        return rawQuery("getBuddiesByMonth", db, SQL_LIST_BY_MONTH, new String[]{String.valueOf(userId), String.valueOf(Integer.parseInt(month))}, signal);
+    }
+
+    // One page of the buddy list in (name, id) order, starting after the given row.
+    // Seeking past the last row instead of using OFFSET keeps every page equally cheap.
+    public Cursor getBuddyPage(long userId, BuddyFilter filter, BuddyRow after, int limit, CancellationSignal signal) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        StringBuilder sql = new StringBuilder("SELECT " + BuddyProjection.LIST_ROW + " FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_USER_ID + "=?");
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(userId));
+
+        if (filter.hasSearch()) {
+            String match = BuddySearchIndex.toMatchQuery(filter.query);
+            if (match != null) {
+                sql.append(" AND " + COL_BUDDY_ID + " IN (" + BuddySearchIndex.SQL_MATCH_FOR_USER + ")");
+                args.add(match);
+                args.add(String.valueOf(userId));
+            }
+        } else if (filter.hasMonth()) {
+            sql.append(" AND " + COL_BUDDY_BIRTH_MONTH + "=?");
+            args.add(String.valueOf(filter.month));
+        }
+
+        if (after != null) {
+            String afterName = after.name == null ? "" : after.name;
+            sql.append(" AND (" + SORT_NAME + ">? OR (" + SORT_NAME + "=? AND " + COL_BUDDY_ID + ">?))");
+            args.add(afterName);
+            args.add(afterName);
+            args.add(String.valueOf(after.id));
+        }
+
+        sql.append(" ORDER BY " + SORT_NAME + " ASC, " + COL_BUDDY_ID + " ASC LIMIT " + limit);
+        return rawQuery("getBuddyPage", db, sql.toString(), args.toArray(new String[0]), signal);
     }
 
     // --- ANALYTICS & REPORTS METHODS (FIXED FOR REPORTS ACTIVITY) ---
 
+    // Counts come from the user_stats counters, not from counting buddies
     public int getBuddyCount(long userId) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_USER_ID + "=?",
-                new String[]{String.valueOf(userId)});
-        int count = 0;
-        if (cursor.moveToFirst()) count = cursor.getInt(0);
-        cursor.close();
-        return count;
+        return (int) queryForLong("getBuddyCount", SQL_USER_STAT, String.valueOf(userId), UserStats.KEY_TOTAL);
     }
 
     // New method required by ReportsActivity to get count by specific gender
     public int getGenderCount(long userId, String gender) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_BUDDIES +
-                        " WHERE " + COL_BUDDY_USER_ID + "=? AND " + COL_BUDDY_GENDER + "=?",
-                new String[]{String.valueOf(userId), gender});
-        int count = 0;
-        if (cursor.moveToFirst()) count = cursor.getInt(0);
-        cursor.close();
-        return count;
+        return (int) queryForLong("getGenderCount", SQL_USER_STAT, String.valueOf(userId), UserStats.genderKey(gender));
     }
 
     // New method required by ReportsActivity to get count by specific month
     public int getBuddyCountByMonth(long userId, String monthNum) {
+        return (int) queryForLong("getBuddyCountByMonth", SQL_USER_STAT, String.valueOf(userId), UserStats.monthKey(Integer.parseInt(monthNum)));
+    }
+
+    // Everything the Reports screen shows: at most 15 counter rows, however many buddies there are
+    public ReportSnapshot getReportSnapshot(long userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        int male = 0, female = 0, total = 0;
+        int[] months = new int[12];
+        try (Cursor cursor = rawQuery("getReportSnapshot", db, SQL_USER_STATS, new String[]{String.valueOf(userId)})) {
+            while (cursor.moveToNext()) {
+                String key = cursor.getString(0);
+                int value = cursor.getInt(1);
+                int month = UserStats.monthOf(key);
+
+                if (UserStats.KEY_TOTAL.equals(key)) total = value;
+                else if (UserStats.genderKey("Male").equals(key)) male = value;
+                else if (UserStats.genderKey("Female").equals(key)) female = value;
+                else if (month >= 1 && month <= 12) months[month - 1] = value;
+            }
+        }
+        return new ReportSnapshot(male, female, total, months);
+    }
+
+    // Recounts the user's buddies the slow way and compares with the counters.
+    // On a mismatch the counters are rebuilt from the buddies table and false
+    // is returned.
+    public boolean verifyUserStats(long userId) {
+        ReportSnapshot counted = countReportSnapshot(userId);
+        ReportSnapshot stored = getReportSnapshot(userId);
+        boolean matches = counted.totalCount == stored.totalCount
+                && counted.maleCount == stored.maleCount
+                && counted.femaleCount == stored.femaleCount
+                && Arrays.equals(counted.getMonthCounts(), stored.getMonthCounts());
+        if (!matches) {
+            Log.w(TAG, "user_stats out of date for user " + userId + ", rebuilding");
+            SQLiteDatabase db = this.getWritableDatabase();
+            long start = monitor.begin("verifyUserStats", SQL_SHAPE_REBUILD_STATS);
+            db.beginTransaction();
+            try {
+                UserStats.rebuild(db, userId);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+                monitor.end("verifyUserStats", SQL_SHAPE_REBUILD_STATS, start, 0);
+            }
+        }
+        return matches;
+    }
+
+    // The report computed straight from buddies, grouped in one pass; used to verify the counters
+    private ReportSnapshot countReportSnapshot(long userId) {
         SQLiteDatabase db = this.getReadableDatabase();
-        // Since dates are YYYY-MM-DD, we look for "-MM-" pattern
-        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + TABLE_BUDDIES +
-                        " WHERE " + COL_BUDDY_USER_ID + "=? AND " + COL_BUDDY_DOB + " LIKE ?",
-                new String[]{String.valueOf(userId), "%-" + monthNum + "-%"});
-        int count = 0;
-        if (cursor.moveToFirst()) count = cursor.getInt(0);
-        cursor.close();
-        return count;
+        int male = 0, female = 0, total = 0;
+        int[] months = new int[12];
+        try (Cursor cursor = rawQuery("countReportSnapshot", db, SQL_REPORT_GROUPS, new String[]{String.valueOf(userId)})) {
+            while (cursor.moveToNext()) {
+                String gender = cursor.getString(0);
+                int month = cursor.isNull(1) ? 0 : cursor.getInt(1);
+                int count = cursor.getInt(2);
+
+                total += count;
+                if ("Male".equals(gender)) male += count;
+                else if ("Female".equals(gender)) female += count;
+                if (month >= 1 && month <= 12) months[month - 1] += count;
+            }
+        }
+        return new ReportSnapshot(male, female, total, months);
+    }
+
+    // The next birthdays on or after fromKey (see BirthDates.keyOf), wrapping
+    // past December into January, read straight off the birth_key index
+    public Cursor getUpcomingBirthdays(long userId, int fromKey, int limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String user = String.valueOf(userId);
+        String key = String.valueOf(fromKey);
+        String max = String.valueOf(limit);
+        return rawQuery("getUpcomingBirthdays", db, SQL_UPCOMING_BIRTHDAYS, new String[]{user, key, max, user, key, max, max});
+    }
+
+    // Export reads: rows in list order, then each distinct photo once
+    public Cursor getBuddiesForExport(long userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return rawQuery("getBuddiesForExport", db, SQL_EXPORT_FOR_USER, new String[]{String.valueOf(userId)});
+    }
+
+    public Cursor getPhotoKeysForUser(long userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return rawQuery("getPhotoKeysForUser", db, SQL_PHOTO_KEYS_FOR_USER, new String[]{String.valueOf(userId)});
+    }
+
+    public int getPhotoCountForUser(long userId) {
+        return (int) queryForLong("getPhotoCountForUser", SQL_PHOTO_COUNT_FOR_USER, String.valueOf(userId));
     }
 
     public Cursor getAllBuddiesWithDob(long userId) {
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.rawQuery("SELECT * FROM " + TABLE_BUDDIES + " WHERE " + COL_BUDDY_USER_ID + "=? AND " + COL_BUDDY_DOB + " IS NOT NULL AND " + COL_BUDDY_DOB + " != ''",
-                new String[]{String.valueOf(userId)});
+        return rawQuery("getAllBuddiesWithDob", db, SQL_BIRTHDAYS_FOR_USER, new String[]{String.valueOf(userId)});
+    }
+
+    // --- COMPILED STATEMENTS ---
+
+    // Single-value queries are compiled once per open database and reused.
+    // A SQLiteStatement carries its own bindings, so each use holds its lock.
+    private long queryForLong(String method, String sql, String... args) {
+        SQLiteStatement statement = compiledStatement(sql);
+        long start = monitor.begin(method, sql);
+        try {
+            synchronized (statement) {
+                statement.bindAllArgsAsStrings(args);
+                return statement.simpleQueryForLong();
+            }
+        } finally {
+            monitor.end(method, sql, start, 1);
+        }
+    }
+
+    // Every cursor is opened through here so QueryMonitor can tell which method it came from
+    private Cursor rawQuery(String method, SQLiteDatabase db, String sql, String[] args) {
+        return rawQuery(method, db, sql, args, null);
+    }
+
+    private Cursor rawQuery(String method, SQLiteDatabase db, String sql, String[] args, CancellationSignal signal) {
+        monitor.label(method);
+        try {
+            return db.rawQuery(sql, args, signal);
+        } finally {
+            // A query that fails before its cursor is created must not pass its label on
+            monitor.clearLabel();
+        }
+    }
+
+    private synchronized SQLiteStatement compiledStatement(String sql) {
+        SQLiteStatement statement = compiledStatements.get(sql);
+        if (statement == null) {
+            statement = getReadableDatabase().compileStatement(sql);
+            compiledStatements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (SQLiteStatement statement : compiledStatements.values()) {
+            statement.close();
+        }
+        compiledStatements.clear();
+        super.close();
     }
 }
\ No newline at end of file
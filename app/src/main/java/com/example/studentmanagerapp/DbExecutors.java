@@ -0,0 +1,144 @@
+package com.example.studentmanagerapp;
+
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// App-wide executors for database work. Writes go through a single lane so
+// they never contend for SQLite's one write lock; reads use a small pool that
+// runs alongside it, which write-ahead logging makes safe. Each lane keeps its
+// own queue-depth and wait-time numbers.
+public class DbExecutors {
+
+    private static final String TAG = "DbExecutors";
+
+    // SQLite's WAL connection pool opens a handful of reader connections;
+    // more threads than that would only queue inside SQLite instead of here
+    private static final int READER_THREADS = 3;
+
+    private static DbExecutors instance;
+
+    private final Lane writer = new Lane("db-write", 1);
+    private final Lane reader = new Lane("db-read", READER_THREADS);
+
+    public static synchronized DbExecutors get() {
+        if (instance == null) {
+            instance = new DbExecutors();
+        }
+        return instance;
+    }
+
+    private DbExecutors() {
+    }
+
+    // Inserts, updates, deletes and anything that must run in write order
+    public Lane writer() {
+        return writer;
+    }
+
+    // Queries; may run concurrently with each other and with the writer
+    public Lane reader() {
+        return reader;
+    }
+
+    public String getStats() {
+        return writer.getStats() + " | " + reader.getStats();
+    }
+
+    public void logStats() {
+        Log.d(TAG, getStats());
+    }
+
+    public static class Lane implements Executor {
+
+        private final String name;
+        private final ThreadPoolExecutor pool;
+
+        private final AtomicInteger submitted = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+        private final AtomicLong totalWaitMs = new AtomicLong();
+        private final AtomicLong maxWaitMs = new AtomicLong();
+        private final AtomicLong totalRunMs = new AtomicLong();
+
+        Lane(String name, int threads) {
+            this.name = name;
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory factory = runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            };
+            pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), factory);
+            // Idle lanes give their threads back
+            pool.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            long queuedAt = SystemClock.uptimeMillis();
+            submitted.incrementAndGet();
+            pool.execute(() -> {
+                long startedAt = SystemClock.uptimeMillis();
+                long waited = startedAt - queuedAt;
+                totalWaitMs.addAndGet(waited);
+                updateMax(maxWaitMs, waited);
+                try {
+                    task.run();
+                } finally {
+                    totalRunMs.addAndGet(SystemClock.uptimeMillis() - startedAt);
+                    completed.incrementAndGet();
+                }
+            });
+            updateMax(maxQueueDepth, pool.getQueue().size());
+        }
+
+        // Tasks waiting for a thread right now
+        public int getQueueDepth() {
+            return pool.getQueue().size();
+        }
+
+        public int getMaxQueueDepth() {
+            return maxQueueDepth.get();
+        }
+
+        public long getAverageWaitMs() {
+            int done = completed.get();
+            return done > 0 ? totalWaitMs.get() / done : 0;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs.get();
+        }
+
+        public String getStats() {
+            int done = completed.get();
+            long avgRun = done > 0 ? totalRunMs.get() / done : 0;
+            return name + " submitted=" + submitted.get() + " completed=" + done +
+                    " queue=" + getQueueDepth() + " maxQueue=" + maxQueueDepth.get() +
+                    " avgWaitMs=" + getAverageWaitMs() + " maxWaitMs=" + maxWaitMs.get() +
+                    " avgRunMs=" + avgRun;
+        }
+
+        private static void updateMax(AtomicInteger max, int value) {
+            int current;
+            while (value > (current = max.get())) {
+                if (max.compareAndSet(current, value)) return;
+            }
+        }
+
+        private static void updateMax(AtomicLong max, long value) {
+            long current;
+            while (value > (current = max.get())) {
+                if (max.compareAndSet(current, value)) return;
+            }
+        }
+    }
+}
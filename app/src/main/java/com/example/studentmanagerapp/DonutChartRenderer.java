@@ -0,0 +1,109 @@
+package com.example.studentmanagerapp;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+// A donut with one slice per category in the series colour. Slices are
+// stroked arcs along the middle of the ring, drawn over a static disc, hole
+// and shadow, and sweep in one after another as the chart animates.
+public class DonutChartRenderer implements ChartRenderer {
+
+    // Donut hole size (0.0 to 1.0, where 0.5 means hole is half the radius)
+    private static final float HOLE_RADIUS_RATIO = 0.6f;
+
+    private final Paint slicePaint;
+    private final Paint backgroundPaint;
+    private final Paint centerPaint;
+    private final Paint shadowPaint;
+
+    private final RectF arcRect = new RectF();
+    private float centerX;
+    private float centerY;
+    private float radius;
+    private float holeRadius;
+
+    // Sweep of each slice in degrees, from layout()
+    private float[] sweeps = new float[0];
+
+    public DonutChartRenderer() {
+        slicePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        slicePaint.setStyle(Paint.Style.STROKE);
+
+        // Background circle paint (light gray)
+        backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        backgroundPaint.setColor(0xFFE8E8E8);
+        backgroundPaint.setStyle(Paint.Style.FILL);
+
+        // Center hole paint (white)
+        centerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        centerPaint.setColor(0xFFFFFFFF);
+        centerPaint.setStyle(Paint.Style.FILL);
+
+        // Subtle shadow inside the hole for depth
+        shadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        shadowPaint.setColor(0x20000000);
+        shadowPaint.setStyle(Paint.Style.FILL);
+    }
+
+    @Override
+    public SeriesDownsampler.Mode getDownsampleMode() {
+        // Every category keeps its own slice
+        return SeriesDownsampler.Mode.NONE;
+    }
+
+    @Override
+    public int maxPoints(int width) {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isSquare() {
+        return true;
+    }
+
+    @Override
+    public void layout(ChartSeries series, int width, int height) {
+        int size = Math.min(width, height);
+        centerX = width / 2f;
+        centerY = height / 2f;
+        radius = size / 2f - 20;
+        holeRadius = radius * HOLE_RADIUS_RATIO;
+
+        // The ring runs from the hole to the outer edge; arcs follow its middle
+        float arcRadius = (radius + holeRadius) / 2f;
+        arcRect.set(centerX - arcRadius, centerY - arcRadius, centerX + arcRadius, centerY + arcRadius);
+        slicePaint.setStrokeWidth(radius - holeRadius);
+
+        int n = series.size();
+        if (sweeps.length < n) {
+            sweeps = new float[n];
+        }
+        float total = series.total();
+        for (int i = 0; i < n; i++) {
+            sweeps[i] = total > 0 ? series.getValue(i) / total * 360f : 0f;
+        }
+    }
+
+    @Override
+    public void draw(Canvas canvas, ChartSeries series, float progress) {
+        if (radius <= 0) return;
+
+        canvas.drawCircle(centerX, centerY, radius, backgroundPaint);
+        canvas.drawCircle(centerX, centerY, holeRadius, centerPaint);
+        canvas.drawCircle(centerX, centerY + 2, holeRadius - 4, shadowPaint);
+
+        float remaining = 360f * progress;
+        float start = -90f;
+        int n = series.size();
+        for (int i = 0; i < n && remaining > 0; i++) {
+            float sweep = Math.min(sweeps[i], remaining);
+            if (sweep > 0) {
+                slicePaint.setColor(series.getColor(i));
+                canvas.drawArc(arcRect, start, sweep, false, slicePaint);
+            }
+            start += sweeps[i];
+            remaining -= sweeps[i];
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.studentmanagerapp;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Records how long each frame takes on the screen in front, tagged with the
+// screen and what the user is doing on it. A callback is posted for every
+// vsync, so the gap between two callbacks is the frame time as the user saw
+// it: anything that blocks the main thread, whether a layout pass, an
+// animation step or a stray database call, shows up as a long gap.
+//
+// Durations go into per-tag histograms held in one preallocated int array,
+// plus a ring of the most recent frames, so recording a frame never
+// allocates. dump() writes everything as JSON for offline analysis.
+// Main thread only.
+public class FrameMonitor implements Choreographer.FrameCallback {
+
+    private static final String TAG = "FrameMonitor";
+
+    public static final String INTERACTION_IDLE = "idle";
+    public static final String INTERACTION_SCROLL = "scroll";
+    public static final String INTERACTION_SEARCH = "search";
+    public static final String INTERACTION_FILTER = "filter";
+    public static final String INTERACTION_SECTION = "section";
+
+    // One histogram per (screen, interaction); frames past the last tag share it
+    private static final int MAX_TAGS = 32;
+    // 1 ms buckets up to FINE_LIMIT_MS, then COARSE_MS buckets, then one overflow bucket
+    private static final int FINE_LIMIT_MS = 100;
+    private static final int COARSE_MS = 50;
+    private static final int COARSE_BUCKETS = 18;
+    private static final int BUCKETS = FINE_LIMIT_MS + COARSE_BUCKETS + 1;
+    private static final int RECENT_FRAMES = 1024;
+    // A frame counts as janky once it runs this far past the refresh interval
+    private static final float JANK_FACTOR = 1.5f;
+    // A gap this long means the app was not drawing at all, e.g. a dialog in front
+    private static final long MAX_FRAME_NANOS = 5_000_000_000L;
+
+    private static FrameMonitor instance;
+
+    private final String[] tagScreens = new String[MAX_TAGS];
+    private final String[] tagInteractions = new String[MAX_TAGS];
+    private int tagCount;
+
+    private final int[] histograms = new int[MAX_TAGS * BUCKETS];
+    private final int[] frames = new int[MAX_TAGS];
+    private final int[] jankFrames = new int[MAX_TAGS];
+    // Frames that should have been drawn but were not
+    private final long[] droppedFrames = new long[MAX_TAGS];
+    private final long[] totalNanos = new long[MAX_TAGS];
+    private final long[] maxNanos = new long[MAX_TAGS];
+
+    private final int[] recentMicros = new int[RECENT_FRAMES];
+    private final byte[] recentTags = new byte[RECENT_FRAMES];
+    private long recentCount;
+
+    private final Choreographer choreographer = Choreographer.getInstance();
+    private boolean running;
+    private long lastFrameNanos;
+    private long intervalNanos = 16_666_667L;
+    private String screen;
+    private String interaction = INTERACTION_IDLE;
+    private long interactionDeadline;
+    private int currentTag = -1;
+
+    public static FrameMonitor get() {
+        if (instance == null) {
+            instance = new FrameMonitor();
+        }
+        return instance;
+    }
+
+    private FrameMonitor() {
+    }
+
+    // Call from onResume; frames are attributed to screen until stop()
+    @SuppressWarnings("deprecation")
+    public void start(Activity activity, String screen) {
+        Display display = activity.getWindowManager().getDefaultDisplay();
+        float refreshRate = display != null ? display.getRefreshRate() : 60f;
+        if (refreshRate >= 1f) intervalNanos = (long) (1_000_000_000L / refreshRate);
+
+        this.screen = screen;
+        interaction = INTERACTION_IDLE;
+        interactionDeadline = 0;
+        currentTag = -1;
+        lastFrameNanos = 0;
+        if (!running) {
+            running = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    // Call from onPause
+    public void stop() {
+        if (!running) return;
+        running = false;
+        choreographer.removeFrameCallback(this);
+    }
+
+    // Frames are tagged with interaction until endInteraction()
+    public void beginInteraction(String interaction) {
+        setInteraction(interaction, 0);
+    }
+
+    // As above, but ends by itself after timeoutMs for interactions whose end
+    // may never be seen, such as a search whose results are dropped as stale
+    public void beginInteraction(String interaction, long timeoutMs) {
+        setInteraction(interaction, SystemClock.uptimeMillis() + timeoutMs);
+    }
+
+    public void endInteraction(String interaction) {
+        if (interaction.equals(this.interaction)) setInteraction(INTERACTION_IDLE, 0);
+    }
+
+    private void setInteraction(String interaction, long deadline) {
+        if (!interaction.equals(this.interaction)) currentTag = -1;
+        this.interaction = interaction;
+        interactionDeadline = deadline;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) return;
+        if (lastFrameNanos != 0) {
+            long duration = frameTimeNanos - lastFrameNanos;
+            if (duration > 0 && duration < MAX_FRAME_NANOS) record(duration);
+        }
+        lastFrameNanos = frameTimeNanos;
+        choreographer.postFrameCallback(this);
+    }
+
+    private void record(long durationNanos) {
+        if (interactionDeadline != 0 && SystemClock.uptimeMillis() > interactionDeadline) {
+            setInteraction(INTERACTION_IDLE, 0);
+        }
+        if (currentTag < 0) currentTag = tagFor(screen, interaction);
+        int tag = currentTag;
+
+        histograms[tag * BUCKETS + bucketOf(durationNanos)]++;
+        frames[tag]++;
+        totalNanos[tag] += durationNanos;
+        if (durationNanos > maxNanos[tag]) maxNanos[tag] = durationNanos;
+        if (durationNanos > intervalNanos * JANK_FACTOR) {
+            jankFrames[tag]++;
+            droppedFrames[tag] += (durationNanos + intervalNanos / 2) / intervalNanos - 1;
+        }
+
+        int slot = (int) (recentCount % RECENT_FRAMES);
+        recentMicros[slot] = (int) Math.min(Integer.MAX_VALUE, durationNanos / 1000);
+        recentTags[slot] = (byte) tag;
+        recentCount++;
+    }
+
+    private int tagFor(String screen, String interaction) {
+        for (int i = 0; i < tagCount; i++) {
+            if (tagScreens[i].equals(screen) && tagInteractions[i].equals(interaction)) return i;
+        }
+        if (tagCount == MAX_TAGS) return MAX_TAGS - 1;
+        tagScreens[tagCount] = screen;
+        tagInteractions[tagCount] = interaction;
+        return tagCount++;
+    }
+
+    static int bucketOf(long durationNanos) {
+        long ms = durationNanos / 1_000_000L;
+        if (ms < FINE_LIMIT_MS) return (int) ms;
+        long coarse = (ms - FINE_LIMIT_MS) / COARSE_MS;
+        return coarse < COARSE_BUCKETS ? FINE_LIMIT_MS + (int) coarse : BUCKETS - 1;
+    }
+
+    // Lower bound of a bucket in ms
+    static int bucketStartMs(int bucket) {
+        if (bucket < FINE_LIMIT_MS) return bucket;
+        return FINE_LIMIT_MS + (bucket - FINE_LIMIT_MS) * COARSE_MS;
+    }
+
+    // Upper bound of the bucket holding the percentile, in ms
+    private int percentileMs(int tag, int percentile) {
+        int total = frames[tag];
+        if (total == 0) return 0;
+        long rank = ((long) total * percentile + 99) / 100;
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histograms[tag * BUCKETS + bucket];
+            if (seen >= rank) {
+                return bucket == BUCKETS - 1
+                        ? (int) (maxNanos[tag] / 1_000_000L)
+                        : bucketStartMs(bucket + 1);
+            }
+        }
+        return (int) (maxNanos[tag] / 1_000_000L);
+    }
+
+    public String getStats() {
+        StringBuilder out = new StringBuilder();
+        for (int tag = 0; tag < tagCount; tag++) {
+            if (out.length() > 0) out.append('\n');
+            out.append(String.format(Locale.US,
+                    "%s/%s frames=%d jank=%d dropped=%d p50<=%dms p90<=%dms p99<=%dms max=%dms",
+                    tagScreens[tag], tagInteractions[tag], frames[tag], jankFrames[tag], droppedFrames[tag],
+                    percentileMs(tag, 50), percentileMs(tag, 90), percentileMs(tag, 99),
+                    maxNanos[tag] / 1_000_000L));
+        }
+        return out.toString();
+    }
+
+    public void logStats() {
+        for (String line : getStats().split("\n")) {
+            if (!line.isEmpty()) Log.d(TAG, line);
+        }
+    }
+
+    // Writes frames-<time>.json to the app's external files dir, which adb can
+    // pull without root. The stats are copied out here and the file is written
+    // on a background thread, so dumping never blocks a frame.
+    public void dump(Context context) {
+        if (tagCount == 0) return;
+        StringWriter json = new StringWriter(16 * 1024);
+        try {
+            writeJson(json);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        Context app = context.getApplicationContext();
+        long now = System.currentTimeMillis();
+        new Thread(() -> {
+            File dir = app.getExternalFilesDir("perf");
+            if (dir == null) dir = new File(app.getFilesDir(), "perf");
+            if (!dir.isDirectory() && !dir.mkdirs()) return;
+            File file = new File(dir, "frames-" + now + ".json");
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                out.write(json.toString());
+                Log.d(TAG, "Frame stats written to " + file);
+            } catch (IOException e) {
+                Log.w(TAG, "Could not write " + file, e);
+            }
+        }, TAG).start();
+    }
+
+    public void dump(File file) throws IOException {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writeJson(out);
+        }
+    }
+
+    private void writeJson(Writer out) throws IOException {
+        out.write(String.format(Locale.US,
+                "{\n  \"refreshIntervalUs\": %d,\n  \"bucketStartsMs\": %s,\n  \"tags\": [",
+                intervalNanos / 1000, bucketStarts()));
+        for (int tag = 0; tag < tagCount; tag++) {
+            out.write(tag == 0 ? "\n" : ",\n");
+            out.write(String.format(Locale.US,
+                    "    {\"screen\": \"%s\", \"interaction\": \"%s\", \"frames\": %d, \"jankFrames\": %d, " +
+                            "\"droppedFrames\": %d, \"totalMs\": %.3f, \"maxMs\": %.3f, " +
+                            "\"p50Ms\": %d, \"p90Ms\": %d, \"p99Ms\": %d, \"histogram\": %s}",
+                    tagScreens[tag], tagInteractions[tag], frames[tag], jankFrames[tag], droppedFrames[tag],
+                    totalNanos[tag] / 1e6, maxNanos[tag] / 1e6,
+                    percentileMs(tag, 50), percentileMs(tag, 90), percentileMs(tag, 99),
+                    Arrays.toString(Arrays.copyOfRange(histograms, tag * BUCKETS, (tag + 1) * BUCKETS))));
+        }
+        // Oldest first, as [tag index, duration in microseconds]
+        out.write("\n  ],\n  \"recent\": [");
+        int size = (int) Math.min(recentCount, RECENT_FRAMES);
+        for (long i = recentCount - size; i < recentCount; i++) {
+            int slot = (int) (i % RECENT_FRAMES);
+            if (i > recentCount - size) out.write(", ");
+            out.write("[" + recentTags[slot] + ", " + recentMicros[slot] + "]");
+        }
+        out.write("]\n}\n");
+    }
+
+    public void reset() {
+        Arrays.fill(histograms, 0);
+        Arrays.fill(frames, 0);
+        Arrays.fill(jankFrames, 0);
+        Arrays.fill(droppedFrames, 0);
+        Arrays.fill(totalNanos, 0);
+        Arrays.fill(maxNanos, 0);
+        Arrays.fill(tagScreens, null);
+        Arrays.fill(tagInteractions, null);
+        tagCount = 0;
+        currentTag = -1;
+        recentCount = 0;
+    }
+
+    private static String bucketStarts() {
+        int[] starts = new int[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            starts[bucket] = bucketStartMs(bucket);
+        }
+        return Arrays.toString(starts);
+    }
+}
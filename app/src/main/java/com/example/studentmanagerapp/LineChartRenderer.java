@@ -0,0 +1,129 @@
+package com.example.studentmanagerapp;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+// A single line through the series, rising from the baseline as the chart
+// animates. Points are marked with dots while there are few enough to tell
+// apart; long series are thinned with LTTB so the shape survives.
+public class LineChartRenderer implements ChartRenderer {
+
+    private static final int LABEL_COLOR = 0xFF757575;
+    private static final int BASELINE_COLOR = 0xFFBDBDBD;
+
+    private static final float PADDING_TOP = 60f;
+    private static final float PADDING_BOTTOM = 80f;
+    private static final float PADDING_LEFT = 40f;
+    private static final float PADDING_RIGHT = 40f;
+    private static final float MIN_POINT_SPACING = 3f;
+    private static final float LABEL_GAP = 8f;
+    private static final int MAX_DOTTED_POINTS = 31;
+    private static final float DOT_RADIUS = 6f;
+
+    private final Paint linePaint;
+    private final Paint dotPaint;
+    private final Paint labelPaint;
+    private final Paint baselinePaint;
+
+    // Rebuilt every frame with rewind(), which keeps the path's storage
+    private final Path path = new Path();
+
+    // Geometry from layout(): x positions and the fully grown height of each point
+    private float[] xs = new float[0];
+    private float[] heights = new float[0];
+    private float baselineY;
+    private float baselineRight;
+    private int labelStride = 1;
+
+    public LineChartRenderer(int color) {
+        linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeWidth(4f);
+        linePaint.setStrokeJoin(Paint.Join.ROUND);
+        linePaint.setStrokeCap(Paint.Cap.ROUND);
+        linePaint.setColor(color);
+
+        dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        dotPaint.setStyle(Paint.Style.FILL);
+        dotPaint.setColor(color);
+
+        labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        labelPaint.setColor(LABEL_COLOR);
+        labelPaint.setTextSize(24f);
+        labelPaint.setTextAlign(Paint.Align.CENTER);
+
+        baselinePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        baselinePaint.setColor(BASELINE_COLOR);
+        baselinePaint.setStrokeWidth(2f);
+    }
+
+    @Override
+    public SeriesDownsampler.Mode getDownsampleMode() {
+        return SeriesDownsampler.Mode.LTTB;
+    }
+
+    @Override
+    public int maxPoints(int width) {
+        float chartWidth = width - PADDING_LEFT - PADDING_RIGHT;
+        return Math.max(2, (int) (chartWidth / MIN_POINT_SPACING) + 1);
+    }
+
+    @Override
+    public boolean isSquare() {
+        return false;
+    }
+
+    @Override
+    public void layout(ChartSeries series, int width, int height) {
+        int n = series.size();
+        if (xs.length < n) {
+            xs = new float[n];
+            heights = new float[n];
+        }
+
+        float chartHeight = height - PADDING_TOP - PADDING_BOTTOM;
+        float chartWidth = width - PADDING_LEFT - PADDING_RIGHT;
+        baselineY = PADDING_TOP + chartHeight;
+        baselineRight = width - PADDING_RIGHT;
+        float maxValue = Math.max(series.max(), 1f);
+
+        float step = n > 1 ? chartWidth / (n - 1) : 0f;
+        float widestLabel = 0f;
+        for (int i = 0; i < n; i++) {
+            xs[i] = n > 1 ? PADDING_LEFT + i * step : PADDING_LEFT + chartWidth / 2;
+            heights[i] = series.getValue(i) / maxValue * chartHeight;
+            String label = series.getLabel(i);
+            if (label != null) {
+                widestLabel = Math.max(widestLabel, labelPaint.measureText(label));
+            }
+        }
+        labelStride = step > 0 ? Math.max(1, (int) Math.ceil((widestLabel + LABEL_GAP) / step)) : 1;
+    }
+
+    @Override
+    public void draw(Canvas canvas, ChartSeries series, float progress) {
+        int n = series.size();
+        if (n == 0) return;
+
+        path.rewind();
+        path.moveTo(xs[0], baselineY - heights[0] * progress);
+        for (int i = 1; i < n; i++) {
+            path.lineTo(xs[i], baselineY - heights[i] * progress);
+        }
+        canvas.drawPath(path, linePaint);
+
+        boolean dots = n <= MAX_DOTTED_POINTS;
+        for (int i = 0; i < n; i++) {
+            if (dots) {
+                canvas.drawCircle(xs[i], baselineY - heights[i] * progress, DOT_RADIUS, dotPaint);
+            }
+            String label = series.getLabel(i);
+            if (label != null && i % labelStride == 0) {
+                canvas.drawText(label, xs[i], baselineY + 35, labelPaint);
+            }
+        }
+
+        canvas.drawLine(PADDING_LEFT, baselineY, baselineRight, baselineY, baselinePaint);
+    }
+}
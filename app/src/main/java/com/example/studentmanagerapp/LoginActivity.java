@@ -4,8 +4,10 @@ import android.content.Intent;
 import android.database.Cursor;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.animation.AlphaAnimation;
 import android.view.animation.Animation;
 import android.view.animation.AnimationSet;
@@ -24,13 +26,15 @@ public class LoginActivity extends AppCompatActivity {
     private DatabaseHelper db;
     private View headerBackground, tvAppLogo;
     private MaterialCardView loginCard;
+    private final DbExecutors dbExecutors = DbExecutors.get();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_login);
 
-        db = new DatabaseHelper(this);
+        db = DatabaseHelper.getInstance(this);
 
         // Initialize views
         etUsername = findViewById(R.id.etUsername);
@@ -50,6 +54,16 @@ public class LoginActivity extends AppCompatActivity {
         // Start animations
         animateViews();
 
+        View content = findViewById(android.R.id.content);
+        content.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                content.getViewTreeObserver().removeOnPreDrawListener(this);
+                StartupTracer.get().mark("login_first_draw");
+                return true;
+            }
+        });
+
         btnLogin.setOnClickListener(v -> {
             String username = etUsername.getText().toString().trim();
             String password = etPassword.getText().toString().trim();
@@ -61,30 +75,29 @@ public class LoginActivity extends AppCompatActivity {
 
             Log.d(TAG, "Attempting login for user: " + username);
 
-            try (Cursor cursor = db.checkLoginAndGetId(username, password)) {
-                if (cursor != null && cursor.moveToFirst()) {
-                    int idColumnIndex = cursor.getColumnIndex(DatabaseHelper.COL_USER_ID);
-                    if (idColumnIndex != -1) {
-                        long userId = cursor.getLong(idColumnIndex);
-                        Log.d(TAG, "Login successful. User ID: " + userId);
-
-                        Intent intent = new Intent(LoginActivity.this, MainActivity.class);
-                        intent.putExtra("USER_ID", userId);
-                        startActivity(intent);
-                        overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
-                        finish();
+            // One attempt at a time; the button comes back once the lookup answers
+            btnLogin.setEnabled(false);
+            dbExecutors.reader().execute(() -> {
+                try (Cursor cursor = db.checkLoginAndGetId(username, password)) {
+                    if (cursor != null && cursor.moveToFirst()) {
+                        int idColumnIndex = cursor.getColumnIndex(DatabaseHelper.COL_USER_ID);
+                        if (idColumnIndex != -1) {
+                            long userId = cursor.getLong(idColumnIndex);
+                            Log.d(TAG, "Login successful. User ID: " + userId);
+                            mainHandler.post(() -> openMain(userId));
+                        } else {
+                            Log.e(TAG, "Column '" + DatabaseHelper.COL_USER_ID + "' not found in cursor!");
+                            showLoginError("Database Error", Toast.LENGTH_SHORT);
+                        }
                     } else {
-                        Log.e(TAG, "Column '" + DatabaseHelper.COL_USER_ID + "' not found in cursor!");
-                        Toast.makeText(this, "Database Error", Toast.LENGTH_SHORT).show();
+                        Log.d(TAG, "Login failed: Invalid credentials");
+                        showLoginError("Invalid username or password", Toast.LENGTH_SHORT);
                     }
-                } else {
-                    Log.d(TAG, "Login failed: Invalid credentials");
-                    Toast.makeText(this, "Invalid username or password", Toast.LENGTH_SHORT).show();
+                } catch (Exception e) {
+                    Log.e(TAG, "Error during login process", e);
+                    showLoginError("System Error: " + e.getMessage(), Toast.LENGTH_LONG);
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error during login process", e);
-                Toast.makeText(this, "System Error: " + e.getMessage(), Toast.LENGTH_LONG).show();
-            }
+            });
         });
 
         btnGoToRegister.setOnClickListener(v -> {
@@ -93,6 +106,24 @@ public class LoginActivity extends AppCompatActivity {
         });
     }
 
+    private void openMain(long userId) {
+        if (isFinishing() || isDestroyed()) return;
+        Intent intent = new Intent(LoginActivity.this, MainActivity.class);
+        intent.putExtra("USER_ID", userId);
+        startActivity(intent);
+        overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+        finish();
+    }
+
+    // Safe to call from any thread
+    private void showLoginError(String message, int duration) {
+        mainHandler.post(() -> {
+            if (isFinishing() || isDestroyed()) return;
+            btnLogin.setEnabled(true);
+            Toast.makeText(this, message, duration).show();
+        });
+    }
+
     private void animateViews() {
         // Animate header background - slide down
         TranslateAnimation slideDown = new TranslateAnimation(
@@ -151,6 +182,11 @@ public class LoginActivity extends AppCompatActivity {
                 loginCard.setAlpha(1f);
                 loginCard.startAnimation(cardAnimation);
             }
+
+            // The form can be used from here on
+            StartupTracer.get().mark("login_interactive");
+            StartupTracer.get().report(this);
+            reportFullyDrawn();
         }, 600);
     }
 }
\ No newline at end of file
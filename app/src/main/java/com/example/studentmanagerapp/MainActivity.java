@@ -2,17 +2,18 @@ package com.example.studentmanagerapp;
 
 import android.app.DatePickerDialog;
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.database.Cursor;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.CancellationSignal;
 import android.os.Handler;
 import android.os.Looper;
 import android.provider.MediaStore;
 import android.text.Editable;
 import android.text.TextWatcher;
-import android.util.Base64;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.animation.AlphaAnimation;
@@ -25,12 +26,15 @@ import android.widget.ArrayAdapter;
 import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.ImageView;
+import android.widget.PopupMenu;
+import android.widget.ProgressBar;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
 import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
+import androidx.annotation.NonNull;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
@@ -41,34 +45,56 @@ import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final String TAG = "MainActivity";
+
+    // Size of the upcoming birthdays card: the next one plus the four after it
+    private static final int UPCOMING_BIRTHDAY_COUNT = 5;
+
+    private static final int MENU_IMPORT = 1;
+    private static final int MENU_EXPORT = 2;
+    // How long a search or filter change counts as the interaction if its results never arrive
+    private static final long LIST_INTERACTION_TIMEOUT_MS = 2000;
+    private static final String[] IMPORT_MIME_TYPES = {
+            "text/csv", "text/comma-separated-values", "text/vcard", "text/x-vcard", "text/plain"};
+
     private DatabaseHelper db;
     private BuddyAdapter adapter;
+    private ThumbnailLoader thumbnailLoader;
+    // List diffs are CPU work, kept off both the main thread and the database lanes
+    private final ExecutorService diffExecutor = Executors.newSingleThreadExecutor();
+    private PhotoIngest photoIngest;
+    private BuddyPager buddyPager;
     private RecyclerView recyclerView;
     private Spinner monthFilterSpinner;
     private EditText etSearch;
     private long userId, selectedBuddyId = -1;
     private String currentSearchQuery = "";
     private int currentMonthPosition = 0;
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final DbExecutors dbExecutors = DbExecutors.get();
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Frame timing, debuggable builds only
+    private FrameMonitor frameMonitor;
 
     // Photo selection
-    private String currentPhotoBase64 = null;
+    private PhotoStore.Entry currentPhoto = null;
+    // Picked in the open dialog, stored only when the buddy is saved
+    private PhotoIngest.Result pendingPhoto = null;
     private ImageView currentPhotoImageView = null;
+    // Bumped per pick and per dialog so a late ingest never lands on the wrong buddy
+    private int photoGeneration = 0;
     private ActivityResultLauncher<Intent> photoPickerLauncher;
+    private ActivityResultLauncher<String[]> importPickerLauncher;
+    private ActivityResultLauncher<String> exportPickerLauncher;
 
     // Animation views
     private View appBarLayout;
@@ -80,47 +106,40 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        // Contact files to import; the importer works out CSV or vCard itself
+        importPickerLauncher = registerForActivityResult(
+                new ActivityResultContracts.OpenDocument(),
+                uri -> {
+                    if (uri != null) importBuddies(uri);
+                });
+
+        exportPickerLauncher = registerForActivityResult(
+                new ActivityResultContracts.CreateDocument("application/zip"),
+                uri -> {
+                    if (uri != null) exportBuddies(uri);
+                });
+
         // Initialize photo picker launcher
         photoPickerLauncher = registerForActivityResult(
                 new ActivityResultContracts.StartActivityForResult(),
                 result -> {
                     if (result.getResultCode() == RESULT_OK && result.getData() != null) {
                         Uri imageUri = result.getData().getData();
-                        if (imageUri != null) {
-                            try {
-                                InputStream inputStream = getContentResolver().openInputStream(imageUri);
-                                Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-
-                                // Resize bitmap to save space
-                                Bitmap resizedBitmap = resizeBitmap(bitmap, 300, 300);
-
-                                // Convert to base64
-                                currentPhotoBase64 = bitmapToBase64(resizedBitmap);
-
-                                // Update ImageView
-                                if (currentPhotoImageView != null) {
-                                    currentPhotoImageView.setImageBitmap(resizedBitmap);
-                                    currentPhotoImageView.setPadding(0, 0, 0, 0);
-                                    currentPhotoImageView.setScaleType(ImageView.ScaleType.CENTER_CROP);
-                                    currentPhotoImageView.setImageTintList(null);
-
-                                }
-
-                                if (inputStream != null) inputStream.close();
-                            } catch (IOException e) {
-                                Toast.makeText(this, "Failed to load image", Toast.LENGTH_SHORT).show();
-                            }
-                        }
+                        if (imageUri != null) ingestPhoto(imageUri);
                     }
                 }
         );
 
-        db = new DatabaseHelper(this);
+        db = DatabaseHelper.getInstance(this);
+        thumbnailLoader = new ThumbnailLoader(db.getPhotoStore());
+        photoIngest = new PhotoIngest(db.getPhotoStore());
+        PhotoVariantMigrator.startOnce(db.getPhotoStore());
+        if (isDebuggable()) frameMonitor = FrameMonitor.get();
         userId = getIntent().getLongExtra("USER_ID", 1);
 
         TextView tvWelcome = findViewById(R.id.tvWelcome);
 
-        executorService.execute(() -> {
+        dbExecutors.reader().execute(() -> {
             Cursor c = db.getUsernameByUserId(userId);
 
             if (c != null && c.moveToFirst()) {
@@ -138,6 +157,49 @@ public class MainActivity extends AppCompatActivity {
         recyclerView = findViewById(R.id.rvBuddies);
         if (recyclerView != null) {
             recyclerView.setLayoutManager(new LinearLayoutManager(this));
+
+            adapter = new BuddyAdapter(thumbnailLoader, diffExecutor);
+            adapter.setOnItemClickListener(id1 -> {
+                selectedBuddyId = id1;
+                showBuddyOptionsDialog(id1);
+            });
+            recyclerView.setAdapter(adapter);
+
+            buddyPager = new BuddyPager(db, userId, dbExecutors.reader(), new BuddyPager.Listener() {
+                @Override
+                public void onReset(List<BuddyRow> rows) {
+                    adapter.setRows(rows);
+                    if (frameMonitor != null) {
+                        // Include the frame that lays out the new rows
+                        recyclerView.post(() -> {
+                            frameMonitor.endInteraction(FrameMonitor.INTERACTION_SEARCH);
+                            frameMonitor.endInteraction(FrameMonitor.INTERACTION_FILTER);
+                        });
+                    }
+                }
+
+                @Override
+                public void onAppended(List<BuddyRow> rows) {
+                    adapter.appendRows(rows);
+                }
+
+                @Override
+                public void onLoadFailed(RuntimeException e) {
+                    Toast.makeText(MainActivity.this, "Could not load buddies", Toast.LENGTH_SHORT).show();
+                }
+            });
+            buddyPager.attach(recyclerView);
+            recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrollStateChanged(@NonNull RecyclerView rv, int newState) {
+                    if (frameMonitor == null) return;
+                    if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                        frameMonitor.endInteraction(FrameMonitor.INTERACTION_SCROLL);
+                    } else {
+                        frameMonitor.beginInteraction(FrameMonitor.INTERACTION_SCROLL);
+                    }
+                }
+            });
         }
 
         // Initialize search EditText
@@ -157,6 +219,11 @@ public class MainActivity extends AppCompatActivity {
             startActivity(i);
         });
 
+        ImageButton btnMore = findViewById(R.id.btnMore);
+        if (btnMore != null) {
+            btnMore.setOnClickListener(this::showMoreMenu);
+        }
+
         ImageButton btnLogout = findViewById(R.id.btnLogout);
         if (btnLogout != null) {
             btnLogout.setOnClickListener(v -> {
@@ -188,7 +255,10 @@ public class MainActivity extends AppCompatActivity {
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {
                     currentSearchQuery = s.toString().trim();
-                    applyFilters();
+                    if (frameMonitor != null) {
+                        frameMonitor.beginInteraction(FrameMonitor.INTERACTION_SEARCH, LIST_INTERACTION_TIMEOUT_MS);
+                    }
+                    applyFilters(SearchScheduler.TYPING_DEBOUNCE_MS);
                 }
 
                 @Override
@@ -199,86 +269,60 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void applyFilters() {
-        if (recyclerView == null) return;
-
-        executorService.execute(() -> {
-            Cursor cursor;
-
-            // If there's a search query, use it (it will override month filter)
-            if (!currentSearchQuery.isEmpty()) {
-                cursor = db.searchBuddiesForUser(currentSearchQuery, userId);
-            }
-            // If month filter is selected (not "All Months")
-            else if (currentMonthPosition > 0) {
-                String month = String.format(Locale.US, "%02d", currentMonthPosition);
-                cursor = db.getBuddiesByMonth(userId, month);
-            }
-            // Otherwise show all buddies
-            else {
-                cursor = db.getAllBuddiesForUser(userId);
-            }
-
-            mainHandler.post(() -> {
-                if (adapter == null) {
-                    adapter = new BuddyAdapter(cursor);
+        applyFilters(0);
+    }
 
-                    adapter.setOnItemClickListener(id1 -> {
-                        selectedBuddyId = id1;
-                        showBuddyOptionsDialog(id1);
-                    });
+    // Every list refresh goes through the pager, which debounces and drops stale pages
+    private void applyFilters(long debounceMs) {
+        if (buddyPager == null) return;
+        buddyPager.setFilter(new BuddyFilter(currentSearchQuery, currentMonthPosition), debounceMs);
+    }
 
-                    recyclerView.setAdapter(adapter);
-                } else {
-                    adapter.swapCursor(cursor);
-                }
-            });
+    // Called after a write: cached pages are out of date
+    private void refreshBuddies() {
+        mainHandler.post(() -> {
+            if (buddyPager == null) return;
+            buddyPager.refresh();
         });
     }
 
     private void loadUpcomingBirthday() {
-        executorService.execute(() -> {
-            Cursor cursor = db.getAllBuddiesWithDob(userId);
-            if (cursor == null) return;
+        dbExecutors.reader().execute(() -> {
+            Calendar today = Calendar.getInstance();
+            int todayKey = BirthDates.keyOf(today.get(Calendar.MONTH) + 1, today.get(Calendar.DAY_OF_MONTH));
 
             String closestBuddyName = null;
-            long minDays = Long.MAX_VALUE;
             String closestDate = null;
-
-            Calendar today = Calendar.getInstance();
-            int currentYear = today.get(Calendar.YEAR);
-
-            while (cursor.moveToNext()) {
-                String name = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_NAME));
-                String dobString = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_DOB));
-
-                try {
-                    Date dob = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).parse(dobString);
-                    Calendar dobCal = Calendar.getInstance();
-                    if (dob != null) {
-                        dobCal.setTime(dob);
-                    }
-                    dobCal.set(Calendar.YEAR, currentYear);
-
-                    if (dobCal.before(today)) {
-                        dobCal.add(Calendar.YEAR, 1);
-                    }
-
-                    long diff = dobCal.getTimeInMillis() - today.getTimeInMillis();
-                    long days = diff / (24 * 60 * 60 * 1000);
-
-                    if (days < minDays) {
-                        minDays = days;
+            StringBuilder laterBirthdays = new StringBuilder();
+
+            SimpleDateFormat dateFormat = new SimpleDateFormat("MMMM d", Locale.getDefault());
+            Calendar date = Calendar.getInstance();
+            // The index hands back the next few birthdays already in order; only those get formatted
+            try (Cursor cursor = db.getUpcomingBirthdays(userId, todayKey, UPCOMING_BIRTHDAY_COUNT)) {
+                if (cursor == null) return;
+                int nameIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_NAME);
+                int monthIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_BIRTH_MONTH);
+                int dayIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_BIRTH_DAY);
+
+                while (cursor.moveToNext()) {
+                    String name = cursor.getString(nameIndex);
+                    date.clear();
+                    date.set(today.get(Calendar.YEAR), cursor.getInt(monthIndex) - 1, cursor.getInt(dayIndex));
+                    String formatted = dateFormat.format(date.getTime());
+
+                    if (closestBuddyName == null) {
                         closestBuddyName = name;
-                        closestDate = new SimpleDateFormat("MMMM d", Locale.getDefault()).format(dobCal.getTime());
+                        closestDate = formatted;
+                    } else {
+                        if (laterBirthdays.length() > 0) laterBirthdays.append('\n');
+                        laterBirthdays.append(name).append(" \u00B7 ").append(formatted);
                     }
-                } catch (ParseException e) {
-                    // Log the exception
                 }
             }
-            cursor.close();
 
             String finalClosestBuddyName = closestBuddyName;
             String finalClosestDate = closestDate;
+            String finalLaterBirthdays = laterBirthdays.toString();
 
             mainHandler.post(() -> {
                 CardView upcomingBirthdayCard = findViewById(R.id.cardUpcomingBirthday);
@@ -289,6 +333,10 @@ public class MainActivity extends AppCompatActivity {
                     tvName.setText(finalClosestBuddyName);
                     tvDate.setText(finalClosestDate);
 
+                    TextView tvMore = findViewById(R.id.tvUpcomingMore);
+                    tvMore.setText(finalLaterBirthdays);
+                    tvMore.setVisibility(finalLaterBirthdays.isEmpty() ? View.GONE : View.VISIBLE);
+
                     upcomingBirthdayCard.setVisibility(View.VISIBLE);
 
                     // Animate the card when it appears
@@ -328,6 +376,9 @@ public class MainActivity extends AppCompatActivity {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 currentMonthPosition = position;
+                if (frameMonitor != null) {
+                    frameMonitor.beginInteraction(FrameMonitor.INTERACTION_FILTER, LIST_INTERACTION_TIMEOUT_MS);
+                }
                 applyFilters();
             }
 
@@ -340,37 +391,19 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void loadBuddies() {
-        if (recyclerView == null) return;
-
-        executorService.execute(() -> {
-            Cursor cursor = db.getAllBuddiesForUser(userId);
-
-            mainHandler.post(() -> {
-                if (adapter == null) {
-                    adapter = new BuddyAdapter(cursor);
-
-                    adapter.setOnItemClickListener(id1 -> {
-                        selectedBuddyId = id1;
-                        showBuddyOptionsDialog(id1);
-                    });
-
-                    recyclerView.setAdapter(adapter);
-                } else {
-                    adapter.swapCursor(cursor);
-                }
-            });
-        });
+        applyFilters();
     }
 
     private void showBuddyOptionsDialog(long buddyId) {
-        executorService.execute(() -> {
+        dbExecutors.reader().execute(() -> {
             Cursor c = db.getBuddyById(buddyId);
             if (c != null && c.moveToFirst()) {
                 String name = c.getString(c.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_NAME));
 
-                // Load photo
-                int photoIndex = c.getColumnIndex(DatabaseHelper.COL_BUDDY_PHOTO);
-                String photoBase64 = (photoIndex != -1) ? c.getString(photoIndex) : null;
+                // Load photo from the store while still off the main thread
+                int photoIndex = c.getColumnIndex(DatabaseHelper.COL_BUDDY_PHOTO_KEY);
+                String photoKey = (photoIndex != -1) ? c.getString(photoIndex) : null;
+                Bitmap photo = db.getPhotoStore().decode(photoKey, PhotoStore.Variant.DETAIL);
 
                 mainHandler.post(() -> {
                     // Inflate custom dialog layout
@@ -382,16 +415,11 @@ public class MainActivity extends AppCompatActivity {
 
                     // Set buddy photo
                     ImageView ivBuddyPhoto = dialogView.findViewById(R.id.ivBuddyPhotoDialog);
-                    if (photoBase64 != null && !photoBase64.isEmpty() && ivBuddyPhoto != null) {
-                        try {
-                            Bitmap bitmap = base64ToBitmap(photoBase64);
-                            ivBuddyPhoto.setImageBitmap(bitmap);
-                            ivBuddyPhoto.setScaleType(ImageView.ScaleType.CENTER_CROP);
-                            ivBuddyPhoto.setPadding(0, 0, 0, 0);
-                            ivBuddyPhoto.setImageTintList(null);
-                        } catch (Exception e) {
-                            // Keep default icon if photo fails to load
-                        }
+                    if (photo != null && ivBuddyPhoto != null) {
+                        ivBuddyPhoto.setImageBitmap(photo);
+                        ivBuddyPhoto.setScaleType(ImageView.ScaleType.CENTER_CROP);
+                        ivBuddyPhoto.setPadding(0, 0, 0, 0);
+                        ivBuddyPhoto.setImageTintList(null);
                     }
 
                     // Get cards
@@ -450,6 +478,40 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (frameMonitor != null) frameMonitor.start(this, "main");
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (frameMonitor != null) frameMonitor.stop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (buddyPager != null) {
+            buddyPager.cancel();
+            Log.d(TAG, "Search " + buddyPager.getStats());
+        }
+        if (photoIngest != null) photoIngest.shutdown();
+        if (thumbnailLoader != null) thumbnailLoader.shutdown();
+        diffExecutor.shutdownNow();
+        dbExecutors.logStats();
+        QueryMonitor.get().logStats();
+        if (frameMonitor != null) {
+            frameMonitor.logStats();
+            frameMonitor.dump(this);
+        }
+    }
+
+    private boolean isDebuggable() {
+        return (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
     private void animateCardClick(View card) {
         card.animate()
                 .scaleX(0.95f)
@@ -482,7 +544,7 @@ public class MainActivity extends AppCompatActivity {
     private void showBuddyDialog(Long id) {
         // Only reset photo if adding new buddy, keep it for updates
         if (id == null) {
-            currentPhotoBase64 = null;
+            currentPhoto = null;
         }
 
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
@@ -498,6 +560,8 @@ public class MainActivity extends AppCompatActivity {
         ImageView ivBuddyPhoto = v.findViewById(R.id.ivBuddyPhoto);
         MaterialCardView btnSelectPhoto = v.findViewById(R.id.btnSelectPhoto);
         currentPhotoImageView = ivBuddyPhoto;
+        pendingPhoto = null;
+        photoGeneration++;
 
         TextInputEditText etName = v.findViewById(R.id.etBuddyName);
         TextInputEditText etPhone = v.findViewById(R.id.etPhone);
@@ -553,7 +617,9 @@ public class MainActivity extends AppCompatActivity {
         }
 
         if (id != null) {
-            executorService.execute(() -> {
+            // A photo picked while the buddy is still loading wins over the stored one
+            int generation = photoGeneration;
+            dbExecutors.reader().execute(() -> {
                 Cursor c = db.getBuddyById(id);
                 if (c != null && c.moveToFirst()) {
                     String name = c.getString(c.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_NAME));
@@ -563,8 +629,11 @@ public class MainActivity extends AppCompatActivity {
                     String gender = c.getString(c.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_GENDER));
 
                     // Load photo
-                    int photoIndex = c.getColumnIndex(DatabaseHelper.COL_BUDDY_PHOTO);
-                    String photoBase64 = (photoIndex != -1) ? c.getString(photoIndex) : null;
+                    String photoKey = c.getString(c.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHOTO_KEY));
+                    PhotoStore.Entry photoEntry = photoKey != null ? new PhotoStore.Entry(photoKey,
+                            c.getInt(c.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHOTO_WIDTH)),
+                            c.getInt(c.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHOTO_HEIGHT))) : null;
+                    Bitmap photo = db.getPhotoStore().decode(photoKey, PhotoStore.Variant.DETAIL);
 
                     mainHandler.post(() -> {
                         if (etName != null) etName.setText(name);
@@ -573,10 +642,9 @@ public class MainActivity extends AppCompatActivity {
                         if (etEmail != null) etEmail.setText(email);
 
                         // Set photo if exists
-                        if (photoBase64 != null && !photoBase64.isEmpty() && ivBuddyPhoto != null) {
-                            currentPhotoBase64 = photoBase64;
-                            Bitmap bitmap = base64ToBitmap(photoBase64);
-                            ivBuddyPhoto.setImageBitmap(bitmap);
+                        if (photo != null && ivBuddyPhoto != null && generation == photoGeneration) {
+                            currentPhoto = photoEntry;
+                            ivBuddyPhoto.setImageBitmap(photo);
                             ivBuddyPhoto.setPadding(0, 0, 0, 0);
                             ivBuddyPhoto.setScaleType(ImageView.ScaleType.CENTER_CROP);
                             ivBuddyPhoto.setImageTintList(null);
@@ -624,31 +692,28 @@ public class MainActivity extends AppCompatActivity {
             }
 
             // Format phone number with +60 prefix
-            if (!phone.isEmpty()) {
-                phone = phone.replaceAll("[^0-9]", "");
-                if (phone.startsWith("60")) {
-                    phone = phone.substring(2);
-                }
-                if (phone.startsWith("0")) {
-                    phone = phone.substring(1);
-                }
-                phone = "+60" + phone;
-            }
+            String finalPhone = BuddyFields.normalizePhone(phone);
+            // Photo is optional - null clears it
+            PhotoStore.Entry storedPhoto = currentPhoto;
+            PhotoIngest.Result newPhoto = pendingPhoto;
 
-            String finalPhone = phone;
-            // Make sure photo is properly captured - use empty string if null
-            String finalPhoto = (currentPhotoBase64 != null && !currentPhotoBase64.trim().isEmpty()) ? currentPhotoBase64 : "";
-
-            executorService.execute(() -> {
+            dbExecutors.writer().execute(() -> {
                 boolean success;
-                if (id == null) {
-                    success = db.insertBuddy(name, gender, dob, finalPhone, email, finalPhoto, userId);
-                } else {
-                    success = db.updateBuddy(String.valueOf(id), name, gender, dob, finalPhone, email, finalPhoto);
+                PhotoStore.Entry finalPhoto = storedPhoto;
+                try {
+                    if (newPhoto != null) finalPhoto = photoIngest.store(newPhoto);
+                    if (id == null) {
+                        success = db.insertBuddy(name, gender, dob, finalPhone, email, finalPhoto, userId);
+                    } else {
+                        success = db.updateBuddy(String.valueOf(id), name, gender, dob, finalPhone, email, finalPhoto);
+                    }
+                } catch (IOException e) {
+                    Log.w(TAG, "Could not store photo", e);
+                    success = false;
                 }
 
                 if (success) {
-                    applyFilters();
+                    refreshBuddies();
                     loadUpcomingBirthday();
 
                     mainHandler.post(() -> {
@@ -693,14 +758,122 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    private void showMoreMenu(View anchor) {
+        PopupMenu menu = new PopupMenu(this, anchor);
+        menu.getMenu().add(0, MENU_IMPORT, 0, R.string.import_contacts);
+        menu.getMenu().add(0, MENU_EXPORT, 1, R.string.export_buddies);
+        menu.setOnMenuItemClickListener(item -> {
+            if (item.getItemId() == MENU_IMPORT) {
+                importPickerLauncher.launch(IMPORT_MIME_TYPES);
+                return true;
+            }
+            if (item.getItemId() == MENU_EXPORT) {
+                String date = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(Calendar.getInstance().getTime());
+                exportPickerLauncher.launch("buddies-" + date + ".zip");
+                return true;
+            }
+            return false;
+        });
+        menu.show();
+    }
+
+    // Progress dialog for long imports and exports; Cancel cancels the signal
+    private AlertDialog showProgressDialog(int titleRes, String message, ProgressBar progressBar, CancellationSignal signal) {
+        progressBar.setIndeterminate(true);
+        int padding = (int) (24 * getResources().getDisplayMetrics().density);
+        progressBar.setPadding(padding, padding / 2, padding, 0);
+
+        return new MaterialAlertDialogBuilder(this)
+                .setTitle(titleRes)
+                .setMessage(message)
+                .setView(progressBar)
+                .setCancelable(false)
+                .setNegativeButton("Cancel", (d, which) -> signal.cancel())
+                .show();
+    }
+
+    private void importBuddies(Uri uri) {
+        CancellationSignal signal = new CancellationSignal();
+        ProgressBar progressBar = new ProgressBar(this, null, android.R.attr.progressBarStyleHorizontal);
+        AlertDialog dialog = showProgressDialog(R.string.import_contacts, "Reading contacts...", progressBar, signal);
+
+        BuddyImporter importer = new BuddyImporter(db);
+        dbExecutors.writer().execute(() -> {
+            String message;
+            try {
+                BuddyImporter.Result result = importer.importFrom(getContentResolver(), uri, userId,
+                        (imported, bytesRead, totalBytes) -> mainHandler.post(() -> {
+                            if (totalBytes > 0) {
+                                progressBar.setIndeterminate(false);
+                                progressBar.setProgress((int) (bytesRead * 100 / totalBytes));
+                            }
+                            dialog.setMessage("Imported " + imported + " buddies...");
+                        }), signal);
+                if (result.error != null) {
+                    message = result.imported == 0 ? "Import failed"
+                            : "Imported " + result.imported + " of " + result.read + " buddies before an error";
+                } else {
+                    message = (result.cancelled ? "Import cancelled after " : "Imported ") + result.imported + " buddies" +
+                            (result.skipped > 0 ? " (" + result.skipped + " skipped)" : "");
+                }
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Import failed", e);
+                message = "Import failed";
+            }
+
+            refreshBuddies();
+            loadUpcomingBirthday();
+
+            String finalMessage = message;
+            mainHandler.post(() -> {
+                if (dialog.isShowing()) dialog.dismiss();
+                Toast.makeText(this, finalMessage, Toast.LENGTH_LONG).show();
+            });
+        });
+    }
+
+    private void exportBuddies(Uri uri) {
+        CancellationSignal signal = new CancellationSignal();
+        ProgressBar progressBar = new ProgressBar(this, null, android.R.attr.progressBarStyleHorizontal);
+        AlertDialog dialog = showProgressDialog(R.string.export_buddies, "Writing buddies...", progressBar, signal);
+
+        BuddyExporter exporter = new BuddyExporter(db);
+        dbExecutors.reader().execute(() -> {
+            String message;
+            try {
+                BuddyExporter.Result result = exporter.exportTo(getContentResolver(), uri, userId,
+                        (rows, photos, totalPhotos) -> mainHandler.post(() -> {
+                            if (totalPhotos > 0) {
+                                progressBar.setIndeterminate(false);
+                                progressBar.setProgress(photos * 100 / totalPhotos);
+                                dialog.setMessage("Copying photos " + photos + " / " + totalPhotos);
+                            } else {
+                                dialog.setMessage("Wrote " + rows + " buddies...");
+                            }
+                        }), signal);
+                message = result.cancelled ? "Export cancelled"
+                        : "Exported " + result.rows + " buddies and " + result.photos + " photos";
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Export failed", e);
+                message = "Export failed";
+            }
+
+            String finalMessage = message;
+            mainHandler.post(() -> {
+                if (dialog.isShowing()) dialog.dismiss();
+                Toast.makeText(this, finalMessage, Toast.LENGTH_LONG).show();
+            });
+        });
+    }
+
     private void confirmDelete(long buddyId) {
         new AlertDialog.Builder(this)
                 .setTitle("Confirm Deletion")
                 .setMessage("Are you sure you want to delete this buddy?")
-                .setPositiveButton("Delete", (dialog, which) -> executorService.execute(() -> {
+                .setPositiveButton("Delete", (dialog, which) -> dbExecutors.writer().execute(() -> {
                     db.deleteBuddy(String.valueOf(buddyId));
                     // Refresh the list with current filters
-                    applyFilters();
+                    refreshBuddies();
                     // Also refresh the upcoming birthday card
                     loadUpcomingBirthday();
                 }))
@@ -711,8 +884,8 @@ public class MainActivity extends AppCompatActivity {
     private void sendWhatsApp() {
         if (selectedBuddyId == -1) return;
 
-        executorService.execute(() -> {
-            Cursor c = db.getBuddyById(selectedBuddyId);
+        dbExecutors.reader().execute(() -> {
+            Cursor c = db.getBuddyContact(selectedBuddyId);
             if (c != null && c.moveToFirst()) {
                 String phone = c.getString(c.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_PHONE));
                 String name = c.getString(c.getColumnIndexOrThrow(DatabaseHelper.COL_BUDDY_NAME));
@@ -734,35 +907,28 @@ public class MainActivity extends AppCompatActivity {
     }
 
     // Photo helper methods
-    private String bitmapToBase64(Bitmap bitmap) {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 80, byteArrayOutputStream);
-        byte[] byteArray = byteArrayOutputStream.toByteArray();
-        return Base64.encodeToString(byteArray, Base64.DEFAULT);
-    }
-
-    private Bitmap base64ToBitmap(String base64String) {
-        byte[] decodedBytes = Base64.decode(base64String, Base64.DEFAULT);
-        return BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-    }
-
-    private Bitmap resizeBitmap(Bitmap bitmap, int maxWidth, int maxHeight) {
-        int width = bitmap.getWidth();
-        int height = bitmap.getHeight();
-
-        float ratioBitmap = (float) width / (float) height;
-        float ratioMax = (float) maxWidth / (float) maxHeight;
-
-        int finalWidth = maxWidth;
-        int finalHeight = maxHeight;
-
-        if (ratioMax > ratioBitmap) {
-            finalWidth = (int) ((float) maxHeight * ratioBitmap);
-        } else {
-            finalHeight = (int) ((float) maxWidth / ratioBitmap);
-        }
+    // Decodes, orients and stores the picked image in the background, then shows it in the open dialog
+    private void ingestPhoto(Uri imageUri) {
+        int generation = ++photoGeneration;
+        photoIngest.ingestAsync(getContentResolver(), imageUri, new PhotoIngest.Listener() {
+            @Override
+            public void onPhotoIngested(PhotoIngest.Result result) {
+                if (generation != photoGeneration || isFinishing()) return;
+                pendingPhoto = result;
+                if (currentPhotoImageView != null) {
+                    currentPhotoImageView.setImageBitmap(result.bitmap);
+                    currentPhotoImageView.setPadding(0, 0, 0, 0);
+                    currentPhotoImageView.setScaleType(ImageView.ScaleType.CENTER_CROP);
+                    currentPhotoImageView.setImageTintList(null);
+                }
+            }
 
-        return Bitmap.createScaledBitmap(bitmap, finalWidth, finalHeight, true);
+            @Override
+            public void onPhotoFailed(Exception error) {
+                if (generation != photoGeneration || isFinishing()) return;
+                Toast.makeText(MainActivity.this, "Failed to load image", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     // Animation Methods
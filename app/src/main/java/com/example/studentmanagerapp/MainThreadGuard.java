@@ -0,0 +1,57 @@
+package com.example.studentmanagerapp;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.Build;
+import android.os.Looper;
+import android.os.StrictMode;
+import android.util.Log;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Debuggable builds only: reports work that must not run on the main thread,
+// with the stack of the call that did it. StrictMode catches disk reads and
+// writes; bitmap decoding is flagged by check() calls in the decoders, since
+// decoding bytes already in memory never touches the disk. check() reports
+// through StrictMode as a custom slow call so every violation comes out the
+// same way. Database access is caught by QueryMonitor, which throws in
+// debuggable builds.
+public class MainThreadGuard {
+
+    private static final String TAG = "MainThreadGuard";
+
+    private static final AtomicInteger violations = new AtomicInteger();
+    private static volatile boolean installed;
+
+    private MainThreadGuard() {
+    }
+
+    // Call once from Application.onCreate, before any activity runs
+    public static void install(Context context) {
+        if ((context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) return;
+        StrictMode.ThreadPolicy.Builder policy = new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectCustomSlowCalls()
+                .penaltyLog();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            // Violations are delivered on the main thread; counting them is all this does there
+            policy.penaltyListener(Runnable::run, violation -> {
+                int count = violations.incrementAndGet();
+                Log.w(TAG, "Main thread violation #" + count, violation);
+            });
+        }
+        StrictMode.setThreadPolicy(policy.build());
+        installed = true;
+    }
+
+    // Flags operation if it is running on the main thread
+    public static void check(String operation) {
+        if (!installed || Looper.myLooper() != Looper.getMainLooper()) return;
+        StrictMode.noteSlowCall(operation + " on the main thread");
+    }
+
+    // Violations seen so far; only counted from Android 9, where StrictMode can report them
+    public static int getViolationCount() {
+        return violations.get();
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.studentmanagerapp;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Turns a picked image into a stored buddy photo off the UI thread. The
+// source is never decoded at full size: its bounds are read first, then it is
+// decoded at the power-of-two sample size that still covers the target box,
+// rotated to its EXIF orientation and scaled to fit in one pass, and encoded
+// as JPEG. Nothing is written until store() is called when the buddy is saved,
+// which puts the JPEG into the PhotoStore along with its list and detail
+// variants, so a photo picked and then discarded leaves no files behind. A
+// 12 MP camera photo costs well under a megabyte of pixels instead of ~48 MB.
+public class PhotoIngest {
+
+    private static final String TAG = "PhotoIngest";
+
+    public static final int TARGET_SIZE = 300;
+    private static final int JPEG_QUALITY = 80;
+
+    // Called on the main thread
+    public interface Listener {
+        void onPhotoIngested(Result result);
+
+        void onPhotoFailed(Exception error);
+    }
+
+    public static class Result {
+        public final byte[] jpeg;
+        // The scaled bitmap that was encoded, for previews and the stored variants
+        public final Bitmap bitmap;
+        public final int sourceWidth;
+        public final int sourceHeight;
+        public final int sampleSize;
+        // Largest amount of pixel memory held at once
+        public final long peakBitmapBytes;
+        // What decoding the source at full size would have needed
+        public final long fullDecodeBytes;
+        // Largest Java heap use seen between stages
+        public final long peakHeapBytes;
+        public final long elapsedMs;
+
+        Result(byte[] jpeg, Bitmap bitmap, int sourceWidth, int sourceHeight, int sampleSize,
+               long peakBitmapBytes, long fullDecodeBytes, long peakHeapBytes, long elapsedMs) {
+            this.jpeg = jpeg;
+            this.bitmap = bitmap;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.sampleSize = sampleSize;
+            this.peakBitmapBytes = peakBitmapBytes;
+            this.fullDecodeBytes = fullDecodeBytes;
+            this.peakHeapBytes = peakHeapBytes;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    private final PhotoStore photoStore;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public PhotoIngest(PhotoStore photoStore) {
+        this.photoStore = photoStore;
+    }
+
+    public void ingestAsync(ContentResolver resolver, Uri uri, Listener listener) {
+        executor.execute(() -> {
+            try {
+                Result result = ingest(resolver, uri);
+                mainHandler.post(() -> listener.onPhotoIngested(result));
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                Log.w(TAG, "Could not ingest " + uri, e);
+                Exception error = e instanceof Exception ? (Exception) e : new IOException(e);
+                mainHandler.post(() -> listener.onPhotoFailed(error));
+            }
+        });
+    }
+
+    public Result ingest(ContentResolver resolver, Uri uri) throws IOException {
+        MainThreadGuard.check("PhotoIngest.ingest");
+        long start = SystemClock.elapsedRealtime();
+        long peakHeap = usedHeap();
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, uri)) {
+            BitmapFactory.decodeStream(in, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Not an image: " + uri);
+        }
+        int sourceWidth = options.outWidth;
+        int sourceHeight = options.outHeight;
+
+        int orientation = readOrientation(resolver, uri);
+
+        // Orientation only swaps the axes, and the target box is square
+        options.inSampleSize = PhotoStore.calculateInSampleSize(sourceWidth, sourceHeight, TARGET_SIZE, TARGET_SIZE);
+        options.inJustDecodeBounds = false;
+        Bitmap sampled;
+        try (InputStream in = open(resolver, uri)) {
+            sampled = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (sampled == null) throw new IOException("Cannot decode " + uri);
+        peakHeap = Math.max(peakHeap, usedHeap());
+
+        Bitmap scaled = scaleAndRotate(sampled, orientation);
+        long peakBitmap = sampled.getAllocationByteCount();
+        if (scaled != sampled) {
+            peakBitmap += scaled.getAllocationByteCount();
+            sampled.recycle();
+        }
+        peakHeap = Math.max(peakHeap, usedHeap());
+
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream(64 * 1024);
+        scaled.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, jpeg);
+        peakHeap = Math.max(peakHeap, usedHeap());
+
+        long fullDecode = (long) sourceWidth * sourceHeight * 4;
+        long elapsed = SystemClock.elapsedRealtime() - start;
+        Log.d(TAG, "Ingested " + sourceWidth + "x" + sourceHeight + " sample=" + options.inSampleSize +
+                " orientation=" + orientation + " -> " + scaled.getWidth() + "x" + scaled.getHeight() +
+                " peakBitmap=" + (peakBitmap / 1024) + "KB (full decode " + (fullDecode / 1024) + "KB)" +
+                " peakHeap=" + (peakHeap / 1024) + "KB in " + elapsed + "ms");
+        return new Result(jpeg.toByteArray(), scaled, sourceWidth, sourceHeight, options.inSampleSize,
+                peakBitmap, fullDecode, peakHeap, elapsed);
+    }
+
+    // Writes an ingested photo and its variants; call on the database writer lane
+    // so it cannot interleave with a delete of the same key
+    public PhotoStore.Entry store(Result result) throws IOException {
+        PhotoStore.Entry entry = photoStore.put(result.jpeg);
+        photoStore.putVariants(entry.key, result.bitmap);
+        return entry;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) throw new IOException("Cannot open " + uri);
+        return in;
+    }
+
+    // A source without EXIF data, or one ExifInterface cannot parse, is taken as upright
+    private static int readOrientation(ContentResolver resolver, Uri uri) {
+        try (InputStream in = open(resolver, uri)) {
+            return new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException | RuntimeException e) {
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    // Fits the bitmap in TARGET_SIZE and applies the orientation with one filtered copy
+    static Bitmap scaleAndRotate(Bitmap source, int orientation) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        float scale = Math.min(1f, Math.min((float) TARGET_SIZE / width, (float) TARGET_SIZE / height));
+
+        Matrix matrix = new Matrix();
+        matrix.setScale(scale, scale);
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(-90);
+                break;
+            default:
+                break;
+        }
+        if (matrix.isIdentity()) return source;
+        return Bitmap.createBitmap(source, 0, 0, width, height, matrix, true);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
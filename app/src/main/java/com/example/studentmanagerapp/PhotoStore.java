@@ -0,0 +1,247 @@
+package com.example.studentmanagerapp;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Content-addressed store for buddy photos. Each JPEG is written once to
+// app-private storage under the hex SHA-1 of its bytes; database rows only
+// keep the key and the image dimensions. Next to each JPEG sit WebP variants
+// sized for where the photo is shown, so the list decodes a few KB per row
+// instead of the full stored image.
+public class PhotoStore {
+
+    private static final String DIR_NAME = "photos";
+    private static final String EXTENSION = ".jpg";
+    private static final String VARIANT_EXTENSION = ".webp";
+
+    public enum Variant {
+        // Covers a 56dp list icon up to xxhdpi
+        THUMBNAIL("_t", 160, 75),
+        // Dialog previews; stored photos are never larger than this
+        DETAIL("_d", 300, 85);
+
+        final String suffix;
+        final int size;
+        final int quality;
+
+        Variant(String suffix, int size, int quality) {
+            this.suffix = suffix;
+            this.size = size;
+            this.quality = quality;
+        }
+    }
+
+    // Resolved on first use: getFilesDir() touches the disk, and the store is
+    // created on the main thread
+    private final Context context;
+    private volatile File dir;
+
+    // Key and dimensions of a stored photo, as kept in the buddies row
+    public static class Entry {
+        public final String key;
+        public final int width;
+        public final int height;
+
+        public Entry(String key, int width, int height) {
+            this.key = key;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    public PhotoStore(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    // Benchmarks and tests keep their photos out of the app's own directory
+    PhotoStore(File dir) {
+        this.context = null;
+        this.dir = dir;
+    }
+
+    private File dir() {
+        File resolved = dir;
+        if (resolved == null) {
+            resolved = new File(context.getFilesDir(), DIR_NAME);
+            dir = resolved;
+        }
+        return resolved;
+    }
+
+    public Entry put(byte[] jpeg) throws IOException {
+        String key = hash(jpeg);
+        File target = fileFor(key);
+
+        // Same bytes always hash to the same key, so an existing file is reused as is
+        if (!target.exists()) {
+            write(target, jpeg);
+        }
+
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(jpeg, 0, jpeg.length, bounds);
+        return new Entry(key, bounds.outWidth, bounds.outHeight);
+    }
+
+    // Encodes every variant of a stored photo from a bitmap of it at any size
+    public void putVariants(String key, Bitmap source) throws IOException {
+        for (Variant variant : Variant.values()) {
+            Bitmap scaled = scaleToFit(source, variant.size);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+            scaled.compress(webpFormat(), variant.quality, out);
+            if (scaled != source) scaled.recycle();
+            write(variantFileFor(key, variant), out.toByteArray());
+        }
+        // The photo was deleted while encoding; its variants would never be cleaned up
+        if (!contains(key)) {
+            delete(key);
+        }
+    }
+
+    public boolean hasVariants(String key) {
+        for (Variant variant : Variant.values()) {
+            if (!variantFileFor(key, variant).exists()) return false;
+        }
+        return true;
+    }
+
+    // Falls back to a sampled decode of the JPEG until the variant has been generated
+    public Bitmap decode(String key, Variant variant) {
+        if (key == null || key.isEmpty()) return null;
+        File file = variantFileFor(key, variant);
+        if (file.exists()) {
+            MainThreadGuard.check("PhotoStore.decode");
+            Bitmap bitmap = BitmapFactory.decodeFile(file.getAbsolutePath());
+            if (bitmap != null) return bitmap;
+        }
+        return decode(key, variant.size, variant.size);
+    }
+
+    // Keys of every stored photo, for maintenance passes
+    public List<String> keys() {
+        List<String> keys = new ArrayList<>();
+        String[] names = dir().list();
+        if (names == null) return keys;
+        for (String name : names) {
+            if (name.endsWith(EXTENSION)) {
+                keys.add(name.substring(0, name.length() - EXTENSION.length()));
+            }
+        }
+        return keys;
+    }
+
+    public File fileFor(String key) {
+        return new File(dir(), key + EXTENSION);
+    }
+
+    File variantFileFor(String key, Variant variant) {
+        return new File(dir(), key + variant.suffix + VARIANT_EXTENSION);
+    }
+
+    public boolean contains(String key) {
+        return key != null && !key.isEmpty() && fileFor(key).exists();
+    }
+
+    public Bitmap decode(String key) {
+        MainThreadGuard.check("PhotoStore.decode");
+        if (!contains(key)) return null;
+        return BitmapFactory.decodeFile(fileFor(key).getAbsolutePath());
+    }
+
+    // Decodes at the smallest power-of-two sample size that still covers the requested size
+    public Bitmap decode(String key, int reqWidth, int reqHeight) {
+        MainThreadGuard.check("PhotoStore.decode");
+        if (!contains(key)) return null;
+        String path = fileFor(key).getAbsolutePath();
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, options);
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeFile(path, options);
+    }
+
+    static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        if (reqWidth <= 0 || reqHeight <= 0) return inSampleSize;
+        while (width / (inSampleSize * 2) >= reqWidth && height / (inSampleSize * 2) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    public void delete(String key) {
+        if (key == null || key.isEmpty()) return;
+        File file = fileFor(key);
+        if (file.exists()) {
+            file.delete();
+        }
+        for (Variant variant : Variant.values()) {
+            File variantFile = variantFileFor(key, variant);
+            if (variantFile.exists()) {
+                variantFile.delete();
+            }
+        }
+    }
+
+    // Written to a temporary file first so a crash never leaves a truncated photo under its key
+    private void write(File target, byte[] bytes) throws IOException {
+        File dir = dir();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create photo directory " + dir);
+        }
+        File tmp = new File(dir, target.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(bytes);
+            out.getFD().sync();
+        }
+        if (!tmp.renameTo(target)) {
+            tmp.delete();
+            throw new IOException("Cannot move photo into place: " + target);
+        }
+    }
+
+    private static Bitmap scaleToFit(Bitmap source, int size) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width <= size && height <= size) return source;
+        float scale = Math.min((float) size / width, (float) size / height);
+        return Bitmap.createScaledBitmap(source,
+                Math.max(1, Math.round(width * scale)), Math.max(1, Math.round(height * scale)), true);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webpFormat() {
+        // WEBP means lossy until API 30 split it into explicit formats
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.WEBP;
+    }
+
+    static String hash(byte[] bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] sum = digest.digest(bytes);
+            StringBuilder sb = new StringBuilder(sum.length * 2);
+            for (byte b : sum) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-1 is guaranteed on every Android runtime
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.studentmanagerapp;
+
+import android.graphics.Bitmap;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Generates the list and detail variants for photos stored before variants
+// existed, or whose variants were lost. Runs once per process on a
+// background-priority thread; until it reaches a photo, PhotoStore serves
+// that photo with a sampled decode of the JPEG instead.
+public class PhotoVariantMigrator implements Runnable {
+
+    private static final String TAG = "PhotoVariantMigrator";
+
+    private static final AtomicBoolean started = new AtomicBoolean();
+
+    private final PhotoStore photoStore;
+
+    public static void startOnce(PhotoStore photoStore) {
+        if (!started.compareAndSet(false, true)) return;
+        Thread thread = new Thread(new PhotoVariantMigrator(photoStore), TAG);
+        thread.start();
+    }
+
+    PhotoVariantMigrator(PhotoStore photoStore) {
+        this.photoStore = photoStore;
+    }
+
+    @Override
+    public void run() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        long start = SystemClock.elapsedRealtime();
+        int generated = 0;
+        int failed = 0;
+
+        for (String key : photoStore.keys()) {
+            if (photoStore.hasVariants(key)) continue;
+            Bitmap source = photoStore.decode(key);
+            if (source == null) {
+                failed++;
+                continue;
+            }
+            try {
+                photoStore.putVariants(key, source);
+                generated++;
+            } catch (IOException e) {
+                Log.w(TAG, "Could not generate variants for " + key, e);
+                failed++;
+            } finally {
+                source.recycle();
+            }
+        }
+
+        if (generated > 0 || failed > 0) {
+            Log.d(TAG, "Generated variants for " + generated + " photos, failed=" + failed +
+                    " in " + (SystemClock.elapsedRealtime() - start) + "ms");
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.studentmanagerapp;
+
+import android.database.Cursor;
+import android.database.CursorWindow;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteCursorDriver;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQuery;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Times every query and write DatabaseHelper makes. Queries are measured by a
+// cursor factory, so the time covers running the statement and filling the
+// CursorWindow as the caller walks it, not just preparing it; the sample is
+// taken when the cursor is closed. Writes are timed by DatabaseHelper around
+// each call. Recent samples are kept in a ring buffer and durations per method
+// feed percentiles. Queries over the slow threshold are logged, and database
+// work on the main thread is allowed, logged or thrown on per policy.
+public class QueryMonitor {
+
+    private static final String TAG = "QueryMonitor";
+
+    private static final int RECENT_SAMPLES = 256;
+    // Durations kept per method for percentiles
+    private static final int METHOD_SAMPLES = 256;
+    // Rows read back from a window to estimate its size
+    private static final int WINDOW_SAMPLE_ROWS = 32;
+    // CursorWindow keeps a 4-byte slot per row and a 12-byte slot per field
+    private static final int ROW_SLOT_BYTES = 4;
+    private static final int FIELD_SLOT_BYTES = 12;
+    private static final int MAX_SHAPES = 512;
+    private static final String UNLABELED = "(unlabeled)";
+    private static final String QUERY_PREFIX = "SQLiteQuery: ";
+
+    private static final Map<String, String> shapes = new ConcurrentHashMap<>();
+
+    public enum MainThreadPolicy {
+        ALLOW,
+        // Log with a stack trace pointing at the caller
+        LOG,
+        // Throw IllegalStateException from the call
+        THROW
+    }
+
+    public static class Sample {
+        public final String method;
+        public final String shape;
+        public final long durationNanos;
+        // -1 when unknown, such as a query whose cursor was never read
+        public final int rows;
+        // Estimated bytes of CursorWindow filled; 0 for writes, -1 when not estimated
+        public final long windowBytes;
+        public final String thread;
+        public final boolean mainThread;
+        public final long uptimeMs;
+
+        Sample(String method, String shape, long durationNanos, int rows, long windowBytes,
+               String thread, boolean mainThread) {
+            this.method = method;
+            this.shape = shape;
+            this.durationNanos = durationNanos;
+            this.rows = rows;
+            this.windowBytes = windowBytes;
+            this.thread = thread;
+            this.mainThread = mainThread;
+            this.uptimeMs = SystemClock.uptimeMillis();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s %.2fms rows=%d windowBytes=%d thread=%s%s sql=%s",
+                    method, durationNanos / 1e6, rows, windowBytes, thread, mainThread ? " (main)" : "", shape);
+        }
+    }
+
+    public static class MethodStats {
+        public final String method;
+        public final int calls;
+        public final int slowCalls;
+        public final int mainThreadCalls;
+        public final long totalRows;
+        public final double p50Ms;
+        public final double p90Ms;
+        public final double p99Ms;
+        public final double maxMs;
+
+        MethodStats(String method, int calls, int slowCalls, int mainThreadCalls, long totalRows,
+                    double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+            this.method = method;
+            this.calls = calls;
+            this.slowCalls = slowCalls;
+            this.mainThreadCalls = mainThreadCalls;
+            this.totalRows = totalRows;
+            this.p50Ms = p50Ms;
+            this.p90Ms = p90Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s calls=%d slow=%d main=%d rows=%d p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                    method, calls, slowCalls, mainThreadCalls, totalRows, p50Ms, p90Ms, p99Ms, maxMs);
+        }
+    }
+
+    private static QueryMonitor instance;
+
+    private volatile long slowThresholdNanos = 50_000_000L;
+    private volatile MainThreadPolicy mainThreadPolicy = MainThreadPolicy.ALLOW;
+    private volatile boolean estimateWindowBytes;
+
+    // Method name for the next cursor opened on this thread
+    private final ThreadLocal<String> pendingMethod = new ThreadLocal<>();
+
+    // Guarded by this
+    private final Sample[] recent = new Sample[RECENT_SAMPLES];
+    private long recentCount;
+    private final Map<String, MethodTimes> methods = new LinkedHashMap<>();
+
+    public static synchronized QueryMonitor get() {
+        if (instance == null) {
+            instance = new QueryMonitor();
+        }
+        return instance;
+    }
+
+    private QueryMonitor() {
+    }
+
+    public void setSlowQueryThresholdMs(long thresholdMs) {
+        slowThresholdNanos = thresholdMs * 1_000_000L;
+    }
+
+    public void setMainThreadPolicy(MainThreadPolicy policy) {
+        mainThreadPolicy = policy;
+    }
+
+    // Reads back part of each window to estimate its size; costs a little per query
+    public void setEstimateWindowBytes(boolean estimate) {
+        estimateWindowBytes = estimate;
+    }
+
+    public SQLiteDatabase.CursorFactory cursorFactory() {
+        return (db, driver, editTable, query) -> {
+            String label = pendingMethod.get();
+            pendingMethod.remove();
+            String method = label != null ? label : UNLABELED;
+            // SQLiteQuery has no public getter for its SQL, but describes itself with it
+            String sql = query.toString();
+            if (sql.startsWith(QUERY_PREFIX)) sql = sql.substring(QUERY_PREFIX.length());
+            return new MonitoredCursor(driver, editTable, query, method, sql, checkThread(method, sql));
+        };
+    }
+
+    // Names the next query opened on this thread
+    public void label(String method) {
+        pendingMethod.set(method);
+    }
+
+    public void clearLabel() {
+        pendingMethod.remove();
+    }
+
+    // Start of a write or statement query; pass the result to end()
+    public long begin(String method, String sql) {
+        checkThread(method, sql);
+        return System.nanoTime();
+    }
+
+    public void end(String method, String sql, long startNanos, int rows) {
+        record(new Sample(method, shapeOf(sql), System.nanoTime() - startNanos, rows, 0,
+                Thread.currentThread().getName(), isMainThread()));
+    }
+
+    // Oldest first
+    public synchronized List<Sample> getRecentSamples() {
+        int size = (int) Math.min(recentCount, RECENT_SAMPLES);
+        List<Sample> samples = new ArrayList<>(size);
+        for (long i = recentCount - size; i < recentCount; i++) {
+            samples.add(recent[(int) (i % RECENT_SAMPLES)]);
+        }
+        return samples;
+    }
+
+    public synchronized List<MethodStats> getMethodStats() {
+        List<MethodStats> stats = new ArrayList<>(methods.size());
+        for (MethodTimes times : methods.values()) {
+            stats.add(times.toStats());
+        }
+        return stats;
+    }
+
+    public String getStats() {
+        StringBuilder out = new StringBuilder();
+        for (MethodStats stats : getMethodStats()) {
+            if (out.length() > 0) out.append('\n');
+            out.append(stats);
+        }
+        return out.toString();
+    }
+
+    public void logStats() {
+        for (MethodStats stats : getMethodStats()) {
+            Log.d(TAG, stats.toString());
+        }
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(recent, null);
+        recentCount = 0;
+        methods.clear();
+    }
+
+    private boolean checkThread(String method, String sql) {
+        boolean main = isMainThread();
+        if (!main) return false;
+        MainThreadPolicy policy = mainThreadPolicy;
+        if (policy == MainThreadPolicy.THROW) {
+            throw new IllegalStateException("Database access on the main thread: " + method + " " + shapeOf(sql));
+        } else if (policy == MainThreadPolicy.LOG) {
+            Log.w(TAG, "Database access on the main thread: " + method + " " + shapeOf(sql),
+                    new Throwable("Called from here"));
+        }
+        return true;
+    }
+
+    private void record(Sample sample) {
+        boolean slow = sample.durationNanos >= slowThresholdNanos;
+        synchronized (this) {
+            recent[(int) (recentCount % RECENT_SAMPLES)] = sample;
+            recentCount++;
+            MethodTimes times = methods.get(sample.method);
+            if (times == null) {
+                times = new MethodTimes(sample.method);
+                methods.put(sample.method, times);
+            }
+            times.add(sample, slow);
+        }
+        if (slow) Log.w(TAG, "Slow: " + sample);
+    }
+
+    // Whitespace collapsed and literals replaced, so calls differing only in values group together
+    static String shapeOf(String sql) {
+        if (sql == null) return "";
+        String shape = shapes.get(sql);
+        if (shape != null) return shape;
+
+        StringBuilder out = new StringBuilder(sql.length());
+        boolean space = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char ch = sql.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                space = out.length() > 0;
+                continue;
+            }
+            if (space) {
+                out.append(' ');
+                space = false;
+            }
+            if (ch == '\'') {
+                // Skip to the closing quote, treating '' as an escaped quote
+                int end = i + 1;
+                while (end < sql.length()) {
+                    if (sql.charAt(end) == '\'') {
+                        if (end + 1 < sql.length() && sql.charAt(end + 1) == '\'') {
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                out.append('?');
+                i = end;
+            } else if (Character.isDigit(ch) && (out.length() == 0 || !isIdentifierChar(out.charAt(out.length() - 1)))) {
+                while (i + 1 < sql.length() && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) i++;
+                out.append('?');
+            } else {
+                out.append(ch);
+            }
+        }
+        shape = out.toString();
+        if (shapes.size() < MAX_SHAPES) shapes.put(sql, shape);
+        return shape;
+    }
+
+    private static boolean isIdentifierChar(char ch) {
+        return Character.isLetterOrDigit(ch) || ch == '_';
+    }
+
+    private static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    private static class MethodTimes {
+        final String method;
+        final long[] nanos = new long[METHOD_SAMPLES];
+        int calls;
+        int slowCalls;
+        int mainThreadCalls;
+        long totalRows;
+        long maxNanos;
+
+        MethodTimes(String method) {
+            this.method = method;
+        }
+
+        void add(Sample sample, boolean slow) {
+            nanos[calls % METHOD_SAMPLES] = sample.durationNanos;
+            calls++;
+            if (slow) slowCalls++;
+            if (sample.mainThread) mainThreadCalls++;
+            if (sample.rows > 0) totalRows += sample.rows;
+            maxNanos = Math.max(maxNanos, sample.durationNanos);
+        }
+
+        // Percentiles over the last METHOD_SAMPLES calls; max over all of them
+        MethodStats toStats() {
+            int size = Math.min(calls, METHOD_SAMPLES);
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new MethodStats(method, calls, slowCalls, mainThreadCalls, totalRows,
+                    percentileMs(sorted, 50), percentileMs(sorted, 90), percentileMs(sorted, 99), maxNanos / 1e6);
+        }
+
+        private static double percentileMs(long[] sorted, int percent) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+    }
+
+    private class MonitoredCursor extends SQLiteCursor {
+        private final String method;
+        private final String sql;
+        private final boolean mainThread;
+        private final String thread = Thread.currentThread().getName();
+        private long fillNanos;
+        private boolean executed;
+        private boolean recorded;
+
+        MonitoredCursor(SQLiteCursorDriver driver, String editTable, SQLiteQuery query,
+                        String method, String sql, boolean mainThread) {
+            super(driver, editTable, query);
+            this.method = method;
+            this.sql = sql;
+            this.mainThread = mainThread;
+        }
+
+        // The statement first runs here, filling the first window
+        @Override
+        public int getCount() {
+            long start = System.nanoTime();
+            try {
+                return super.getCount();
+            } finally {
+                fillNanos += System.nanoTime() - start;
+                executed = true;
+            }
+        }
+
+        // Moving past the window refills it
+        @Override
+        public boolean onMove(int oldPosition, int newPosition) {
+            long start = System.nanoTime();
+            try {
+                return super.onMove(oldPosition, newPosition);
+            } finally {
+                fillNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!recorded) {
+                recorded = true;
+                int rows = executed ? super.getCount() : -1;
+                long bytes = executed && estimateWindowBytes ? estimateBytes(getWindow(), rows) : -1;
+                record(new Sample(method, shapeOf(sql), fillNanos, rows, bytes, thread, mainThread));
+            }
+            super.close();
+        }
+
+        // Average size of the rows in the current window, times all rows
+        private long estimateBytes(CursorWindow window, int rows) {
+            if (window == null || rows <= 0) return 0;
+            int sampled = Math.min(window.getNumRows(), WINDOW_SAMPLE_ROWS);
+            if (sampled == 0) return 0;
+            int columns = getColumnCount();
+            int start = window.getStartPosition();
+            long bytes = 0;
+            for (int row = start; row < start + sampled; row++) {
+                bytes += ROW_SLOT_BYTES;
+                for (int column = 0; column < columns; column++) {
+                    bytes += FIELD_SLOT_BYTES;
+                    int type = window.getType(row, column);
+                    if (type == Cursor.FIELD_TYPE_STRING) {
+                        // Stored as UTF-8 with a terminator; close enough for mostly-ASCII data
+                        bytes += window.getString(row, column).length() + 1;
+                    } else if (type == Cursor.FIELD_TYPE_BLOB) {
+                        bytes += window.getBlob(row, column).length;
+                    }
+                }
+            }
+            return bytes * rows / sampled;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.studentmanagerapp;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Toast;
@@ -11,13 +13,15 @@ public class RegisterActivity extends AppCompatActivity {
     private EditText etUsername, etPassword, etConfirmPassword;
     private Button btnRegister;
     private DatabaseHelper db;
+    private final DbExecutors dbExecutors = DbExecutors.get();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_register);
 
-        db = new DatabaseHelper(this);
+        db = DatabaseHelper.getInstance(this);
 
         etUsername = findViewById(R.id.etRegisterUsername);
         etPassword = findViewById(R.id.etRegisterPassword);
@@ -39,12 +43,20 @@ public class RegisterActivity extends AppCompatActivity {
                 return;
             }
 
-            if (db.insertUser(username, password)) {
-                Toast.makeText(this, "Registration successful!", Toast.LENGTH_SHORT).show();
-                finish();
-            } else {
-                Toast.makeText(this, "Registration failed. Username might already exist.", Toast.LENGTH_SHORT).show();
-            }
+            btnRegister.setEnabled(false);
+            dbExecutors.writer().execute(() -> {
+                boolean registered = db.insertUser(username, password);
+                mainHandler.post(() -> {
+                    if (isFinishing() || isDestroyed()) return;
+                    if (registered) {
+                        Toast.makeText(this, "Registration successful!", Toast.LENGTH_SHORT).show();
+                        finish();
+                    } else {
+                        btnRegister.setEnabled(true);
+                        Toast.makeText(this, "Registration failed. Username might already exist.", Toast.LENGTH_SHORT).show();
+                    }
+                });
+            });
         });
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.studentmanagerapp;
+
+// Immutable result of the Reports query: gender split, births per month and
+// the total, for one user at one point in time.
+public class ReportSnapshot {
+
+    public final int maleCount;
+    public final int femaleCount;
+    public final int totalCount;
+    private final int[] monthCounts;
+
+    public ReportSnapshot(int maleCount, int femaleCount, int totalCount, int[] monthCounts) {
+        if (monthCounts.length != 12) {
+            throw new IllegalArgumentException("Expected 12 monthly counts, got " + monthCounts.length);
+        }
+        this.maleCount = maleCount;
+        this.femaleCount = femaleCount;
+        this.totalCount = totalCount;
+        this.monthCounts = monthCounts.clone();
+    }
+
+    // month is 1-12
+    public int getMonthCount(int month) {
+        return monthCounts[month - 1];
+    }
+
+    // A fresh copy, safe to hand to a chart that keeps the array
+    public int[] getMonthCounts() {
+        return monthCounts.clone();
+    }
+}
@@ -5,10 +5,11 @@ import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator;
-import android.database.Cursor;
+import android.content.pm.ApplicationInfo;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
@@ -19,11 +20,24 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ReportsActivity extends AppCompatActivity {
 
+    private static final String[] MONTH_LABELS = {"Jan", "Feb", "Mar", "Apr", "May", "Jun",
+            "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    // Layout swap plus the longest chart animation that follows it
+    private static final long SECTION_SWITCH_MS = 2500;
+
     private DatabaseHelper db;
     private long userId;
+    private final DbExecutors dbExecutors = DbExecutors.get();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Loaded once in the background and reused by every section
+    private ReportSnapshot report;
+    private final List<Runnable> pendingReportActions = new ArrayList<>();
 
     // Layout Containers
     private LinearLayout layoutGender, layoutBirthday, layoutStats;
@@ -32,20 +46,26 @@ public class ReportsActivity extends AppCompatActivity {
     private MaterialCardView cardGender, cardBirthday, cardStats;
 
     // Views
-    private GenderPieChartView genderPieChart;
-    private BirthdayBarChartView birthdayBarChart;
+    private ChartView genderPieChart;
+    private ChartView birthdayBarChart;
     private TextView tvMaleCount, tvFemaleCount, tvTotalSummary;
     private MaterialButton btnShowGender, btnShowBirthday, btnShowStats, btnBack;
 
     private int currentSection = 1;
     private boolean isAnimating = false;
 
+    // Draw timing for the charts, debuggable builds only
+    private ChartDrawProbe pieChartProbe;
+    private ChartDrawProbe barChartProbe;
+    // Frame timing, debuggable builds only
+    private FrameMonitor frameMonitor;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_reports);
 
-        db = new DatabaseHelper(this);
+        db = DatabaseHelper.getInstance(this);
         userId = getIntent().getLongExtra("USER_ID", -1);
 
         initializeViews();
@@ -70,6 +90,19 @@ public class ReportsActivity extends AppCompatActivity {
         // Initialize Views
         genderPieChart = findViewById(R.id.genderPieChart);
         birthdayBarChart = findViewById(R.id.birthdayBarChart);
+        genderPieChart.setRenderer(new DonutChartRenderer());
+        birthdayBarChart.setRenderer(new BarChartRenderer(
+                getColor(R.color.primary),
+                getColor(R.color.primary_light)));
+        // Start after the chart appears
+        birthdayBarChart.setAnimation(1500, 300);
+        if (isDebuggable()) {
+            pieChartProbe = new ChartDrawProbe("GenderPieChart");
+            genderPieChart.setDrawProbe(pieChartProbe);
+            barChartProbe = new ChartDrawProbe("BirthdayBarChart");
+            birthdayBarChart.setDrawProbe(barChartProbe);
+            frameMonitor = FrameMonitor.get();
+        }
         tvMaleCount = findViewById(R.id.tvMaleCount);
         tvFemaleCount = findViewById(R.id.tvFemaleCount);
         tvTotalSummary = findViewById(R.id.tvTotalSummary);
@@ -109,6 +142,35 @@ public class ReportsActivity extends AppCompatActivity {
         loadGenderData();
         loadBirthdayStats();
         loadSummary();
+
+        dbExecutors.reader().execute(() -> {
+            ReportSnapshot snapshot = db.getReportSnapshot(userId);
+            mainHandler.post(() -> {
+                report = snapshot;
+                for (Runnable action : pendingReportActions) {
+                    action.run();
+                }
+                pendingReportActions.clear();
+            });
+        });
+
+        // Debuggable builds check the stored counters against a full recount
+        if (isDebuggable()) {
+            dbExecutors.writer().execute(() -> db.verifyUserStats(userId));
+        }
+    }
+
+    private boolean isDebuggable() {
+        return (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    // Runs now if the report is loaded, otherwise as soon as it arrives
+    private void whenReportLoaded(Runnable action) {
+        if (report != null) {
+            action.run();
+        } else {
+            pendingReportActions.add(action);
+        }
     }
 
     private void animatePageEntry() {
@@ -142,14 +204,12 @@ public class ReportsActivity extends AppCompatActivity {
                     .setInterpolator(new OvershootInterpolator(0.8f))
                     .withEndAction(() -> {
                         // Trigger chart animation after layout is visible
-                        new Handler().postDelayed(() -> {
+                        new Handler().postDelayed(() -> whenReportLoaded(() -> {
                             if (genderPieChart != null) {
-                                int male = db.getGenderCount(userId, "Male");
-                                int female = db.getGenderCount(userId, "Female");
-                                genderPieChart.setGenderCounts(male, female);
+                                showGenderChart();
                             }
                             animateCounters();
-                        }, 200);
+                        }), 200);
                     })
                     .start();
         }, 300);
@@ -202,6 +262,9 @@ public class ReportsActivity extends AppCompatActivity {
         if (isAnimating) return;
 
         isAnimating = true;
+        if (frameMonitor != null) {
+            frameMonitor.beginInteraction(FrameMonitor.INTERACTION_SECTION, SECTION_SWITCH_MS);
+        }
         int previousSection = currentSection;
         currentSection = section;
 
@@ -238,24 +301,17 @@ public class ReportsActivity extends AppCompatActivity {
                                 // Trigger chart animations with fresh data
                                 if (section == 1) {
                                     // Re-trigger gender chart animation
-                                    new Handler().postDelayed(() -> {
-                                        int male = db.getGenderCount(userId, "Male");
-                                        int female = db.getGenderCount(userId, "Female");
-                                        genderPieChart.setGenderCounts(male, female);
+                                    new Handler().postDelayed(() -> whenReportLoaded(() -> {
+                                        showGenderChart();
                                         animateCounters();
-                                    }, 100);
+                                    }), 100);
                                 } else if (section == 2) {
                                     // Re-trigger bar chart animation
-                                    new Handler().postDelayed(() -> {
-                                        int[] counts = new int[12];
-                                        for (int i = 1; i <= 12; i++) {
-                                            String monthNum = String.format("%02d", i);
-                                            counts[i-1] = db.getBuddyCountByMonth(userId, monthNum);
-                                        }
-                                        birthdayBarChart.setData(counts);
-                                    }, 100);
+                                    new Handler().postDelayed(() -> whenReportLoaded(() -> {
+                                        showBirthdayChart();
+                                    }), 100);
                                 } else if (section == 3) {
-                                    animateTotalCount();
+                                    whenReportLoaded(this::animateTotalCount);
                                 }
                             })
                             .start();
@@ -298,8 +354,8 @@ public class ReportsActivity extends AppCompatActivity {
     }
 
     private void animateCounters() {
-        int male = db.getGenderCount(userId, "Male");
-        int female = db.getGenderCount(userId, "Female");
+        int male = report.maleCount;
+        int female = report.femaleCount;
 
         animateTextCounter(tvMaleCount, 0, male, 800);
 
@@ -309,7 +365,7 @@ public class ReportsActivity extends AppCompatActivity {
     }
 
     private void animateTotalCount() {
-        int total = db.getBuddyCount(userId);
+        int total = report.totalCount;
         animateTextCounter(tvTotalSummary, 0, total, 1000);
     }
 
@@ -353,10 +409,46 @@ public class ReportsActivity extends AppCompatActivity {
         tvTotalSummary.setText("0");
     }
 
+    private void showGenderChart() {
+        ChartSeries series = new ChartSeries(2);
+        series.add(report.maleCount, "Male", getColor(R.color.chart_blue));
+        series.add(report.femaleCount, "Female", getColor(R.color.chart_pink));
+        genderPieChart.setSeries(series);
+    }
+
+    private void showBirthdayChart() {
+        ChartSeries series = new ChartSeries(MONTH_LABELS.length);
+        int barColor = getColor(R.color.primary);
+        for (int month = 1; month <= 12; month++) {
+            series.add(report.getMonthCount(month), MONTH_LABELS[month - 1], barColor);
+        }
+        birthdayBarChart.setSeries(series);
+    }
+
     private void loadBirthdayStats() {
         // Data will be set with animation when switching to this tab
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (frameMonitor != null) frameMonitor.start(this, "reports");
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (frameMonitor != null) frameMonitor.stop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (frameMonitor != null) frameMonitor.logStats();
+        if (pieChartProbe != null) pieChartProbe.release();
+        if (barChartProbe != null) barChartProbe.release();
+    }
+
     @Override
     public void onBackPressed() {
         animatePageExit();
@@ -0,0 +1,214 @@
+package com.example.studentmanagerapp;
+
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.OperationCanceledException;
+import android.util.Log;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs list queries for the search box and month filter. Keystrokes are
+// debounced, a newer request cancels the query still running for an older one,
+// and only the newest result ever reaches the adapter. Queries must return
+// fully materialised results so a dropped one needs no cleanup. A query that
+// throws is reported on the main thread like a result, never left to kill the
+// worker thread.
+public class SearchScheduler<T> {
+
+    public interface Query<T> {
+        T run(CancellationSignal signal);
+    }
+
+    public interface Delivery<T> {
+        void deliver(T result);
+    }
+
+    public interface Failure {
+        void fail(RuntimeException e);
+    }
+
+    // Where debounce timers and deliveries run: the main looper in the app, a
+    // hand-driven fake in JVM tests
+    interface MainThread {
+        boolean isCurrent();
+
+        void post(Runnable task);
+
+        void postDelayed(Runnable task, long delayMs);
+
+        void remove(Runnable task);
+    }
+
+    private static class LooperMainThread implements MainThread {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public boolean isCurrent() {
+            return Looper.myLooper() == Looper.getMainLooper();
+        }
+
+        @Override
+        public void post(Runnable task) {
+            handler.post(task);
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            handler.postDelayed(task, delayMs);
+        }
+
+        @Override
+        public void remove(Runnable task) {
+            handler.removeCallbacks(task);
+        }
+    }
+
+    private static final String TAG = "SearchScheduler";
+
+    // Long enough to swallow a burst of typing, short enough to feel live
+    public static final long TYPING_DEBOUNCE_MS = 250;
+
+    private final Executor executor;
+    private final Delivery<T> delivery;
+    private final Failure failure;
+    private final MainThread mainThread;
+    private final AtomicLong generation = new AtomicLong();
+
+    // Main thread only
+    private Runnable pendingDispatch;
+    private CancellationSignal inFlight;
+
+    // Metrics: requests made, queries that reached the database, results shown
+    private final AtomicInteger requested = new AtomicInteger();
+    private final AtomicInteger issued = new AtomicInteger();
+    private final AtomicInteger delivered = new AtomicInteger();
+    private final AtomicInteger superseded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    // Failures are only logged
+    public SearchScheduler(Executor executor, Delivery<T> delivery) {
+        this(executor, delivery, e -> {
+        });
+    }
+
+    public SearchScheduler(Executor executor, Delivery<T> delivery, Failure failure) {
+        this(executor, delivery, failure, new LooperMainThread());
+    }
+
+    SearchScheduler(Executor executor, Delivery<T> delivery, Failure failure, MainThread mainThread) {
+        this.executor = executor;
+        this.delivery = delivery;
+        this.failure = failure;
+        this.mainThread = mainThread;
+    }
+
+    public void schedule(Query<T> query, long debounceMs) {
+        if (!mainThread.isCurrent()) {
+            mainThread.post(() -> schedule(query, debounceMs));
+            return;
+        }
+
+        long gen = generation.incrementAndGet();
+        requested.incrementAndGet();
+        cancelPending();
+
+        pendingDispatch = () -> {
+            pendingDispatch = null;
+            dispatch(query, gen);
+        };
+        if (debounceMs > 0) {
+            mainThread.postDelayed(pendingDispatch, debounceMs);
+        } else {
+            pendingDispatch.run();
+        }
+    }
+
+    public void cancel() {
+        generation.incrementAndGet();
+        cancelPending();
+    }
+
+    private void cancelPending() {
+        if (pendingDispatch != null) {
+            mainThread.remove(pendingDispatch);
+            pendingDispatch = null;
+        }
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+
+    private void dispatch(Query<T> query, long gen) {
+        CancellationSignal signal = new CancellationSignal();
+        inFlight = signal;
+
+        executor.execute(() -> {
+            // Superseded while waiting in the executor queue: skip the database entirely
+            if (gen != generation.get()) {
+                superseded.incrementAndGet();
+                return;
+            }
+
+            issued.incrementAndGet();
+            T result;
+            try {
+                result = query.run(signal);
+            } catch (OperationCanceledException e) {
+                superseded.incrementAndGet();
+                return;
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Query failed", e);
+                mainThread.post(() -> {
+                    if (gen != generation.get()) {
+                        superseded.incrementAndGet();
+                        return;
+                    }
+                    if (inFlight == signal) inFlight = null;
+                    failed.incrementAndGet();
+                    failure.fail(e);
+                });
+                return;
+            }
+
+            if (gen != generation.get()) {
+                superseded.incrementAndGet();
+                return;
+            }
+
+            mainThread.post(() -> {
+                if (gen != generation.get()) {
+                    superseded.incrementAndGet();
+                    return;
+                }
+                if (inFlight == signal) inFlight = null;
+                delivered.incrementAndGet();
+                delivery.deliver(result);
+                Log.d(TAG, getStats());
+            });
+        });
+    }
+
+    public int getRequestedCount() {
+        return requested.get();
+    }
+
+    public int getIssuedCount() {
+        return issued.get();
+    }
+
+    public int getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    public String getStats() {
+        return "requested=" + requested.get() + " issued=" + issued.get() +
+                " delivered=" + delivered.get() + " superseded=" + superseded.get() + " failed=" + failed.get();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.studentmanagerapp;
+
+// Reduces a long series to at most maxPoints before it is laid out, so a chart
+// of several years of weekly values draws a few hundred shapes, not thousands.
+public class SeriesDownsampler {
+
+    public enum Mode {
+        // Draw every point as is
+        NONE,
+        // Consecutive points are summed into buckets; right for counts drawn as bars
+        BUCKET_SUM,
+        // Largest-Triangle-Three-Buckets: keeps the points that shape a line
+        LTTB
+    }
+
+    public static void downsample(ChartSeries in, int maxPoints, Mode mode, ChartSeries out) {
+        out.clear();
+        int n = in.size();
+        if (mode == Mode.NONE || n <= maxPoints || maxPoints <= 0) {
+            copy(in, 0, n, out);
+        } else if (mode == Mode.BUCKET_SUM) {
+            bucketSum(in, maxPoints, out);
+        } else if (maxPoints < 3) {
+            // LTTB always keeps both ends, so it needs room for at least one middle point
+            copy(in, 0, Math.min(n, maxPoints), out);
+        } else {
+            lttb(in, maxPoints, out);
+        }
+    }
+
+    private static void copy(ChartSeries in, int from, int to, ChartSeries out) {
+        for (int i = from; i < to; i++) {
+            out.add(in.getValue(i), in.getLabel(i), in.getColor(i));
+        }
+    }
+
+    // Each bucket is labelled and coloured like its first point
+    private static void bucketSum(ChartSeries in, int maxPoints, ChartSeries out) {
+        int n = in.size();
+        int bucketSize = (n + maxPoints - 1) / maxPoints;
+        for (int start = 0; start < n; start += bucketSize) {
+            int end = Math.min(start + bucketSize, n);
+            float sum = 0f;
+            for (int i = start; i < end; i++) {
+                sum += in.getValue(i);
+            }
+            out.add(sum, in.getLabel(start), in.getColor(start));
+        }
+    }
+
+    private static void lttb(ChartSeries in, int maxPoints, ChartSeries out) {
+        float[] values = in.valuesArray();
+        int n = in.size();
+        double bucketSize = (double) (n - 2) / (maxPoints - 2);
+
+        int selected = 0;
+        copy(in, 0, 1, out);
+
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            // Average of the next bucket, the third corner of the triangle
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += i;
+                avgY += values[i];
+            }
+            int nextCount = Math.max(nextEnd - nextStart, 1);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // Pick the point in this bucket that makes the largest triangle
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double selectedY = values[selected];
+            double maxArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((selected - avgX) * (values[i] - selectedY)
+                        - (selected - i) * (avgY - selectedY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            copy(in, best, best + 1, out);
+            selected = best;
+        }
+
+        copy(in, n - 1, n, out);
+    }
+}
@@ -4,27 +4,68 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
 import androidx.appcompat.app.AppCompatActivity;
 
+// Shows the logo while the database is opened, migrated if needed, and the
+// login lookup is run once, then moves on as soon as that is done. A minimum
+// display time applies only when splash_min_display_ms is set.
 public class SplashActivity extends AppCompatActivity {
 
+    private static final String TAG = "SplashActivity";
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private long createdAt;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        StartupTracer tracer = StartupTracer.get();
+        tracer.begin();
+        tracer.mark("splash_created");
         setContentView(R.layout.activity_splash);
+        createdAt = SystemClock.uptimeMillis();
 
-        // Simple 3-second delay to transition to LoginActivity
-        new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                Intent intent = new Intent(SplashActivity.this, LoginActivity.class);
-                startActivity(intent);
+        DatabaseHelper db = DatabaseHelper.getInstance(this);
+        DbExecutors.get().writer().execute(() -> {
+            try {
+                db.warmUp();
+                tracer.mark("db_ready");
+            } catch (RuntimeException e) {
+                // Login reports the failure properly; the splash must not get stuck
+                Log.e(TAG, "Database warm-up failed", e);
+            }
+            mainHandler.post(this::onWarmedUp);
+        });
+    }
 
-                // Optional: Smooth fade out of splash
-                overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+    private void onWarmedUp() {
+        if (isFinishing() || isDestroyed()) return;
+        long shown = SystemClock.uptimeMillis() - createdAt;
+        long remaining = getResources().getInteger(R.integer.splash_min_display_ms) - shown;
+        if (remaining > 0) {
+            mainHandler.postDelayed(this::openLogin, remaining);
+        } else {
+            openLogin();
+        }
+    }
 
-                finish();
-            }
-        }, 3000);
+    private void openLogin() {
+        if (isFinishing()) return;
+        StartupTracer.get().mark("splash_done");
+        Intent intent = new Intent(SplashActivity.this, LoginActivity.class);
+        startActivity(intent);
+
+        // Optional: Smooth fade out of splash
+        overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+
+        finish();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mainHandler.removeCallbacksAndMessages(null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package com.example.studentmanagerapp;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.core.content.pm.PackageInfoCompat;
+
+// Records named milestones of one app start, measured from the moment the
+// process was forked, and logs them in a single line tagged with the app
+// version so time-to-interactive can be compared release to release. A
+// launch into a process that was already running is a warm start and is
+// measured from the splash instead.
+public class StartupTracer {
+
+    private static final String TAG = "StartupTracer";
+
+    private static final int MAX_MILESTONES = 16;
+
+    private static StartupTracer instance;
+
+    private final String[] names = new String[MAX_MILESTONES];
+    private final long[] times = new long[MAX_MILESTONES];
+    private int count;
+    private long origin;
+    private boolean cold = true;
+    private boolean started;
+    private boolean reported;
+
+    public static synchronized StartupTracer get() {
+        if (instance == null) {
+            instance = new StartupTracer();
+        }
+        return instance;
+    }
+
+    private StartupTracer() {
+        origin = Process.getStartUptimeMillis();
+    }
+
+    // Called as the launcher activity is created; starts a new trace
+    public synchronized void begin() {
+        if (started) {
+            // Process was already alive, so the fork time says nothing about this launch
+            cold = false;
+            origin = SystemClock.uptimeMillis();
+            count = 0;
+            reported = false;
+        }
+        started = true;
+    }
+
+    public synchronized void mark(String name) {
+        if (reported || count == MAX_MILESTONES) return;
+        names[count] = name;
+        times[count] = SystemClock.uptimeMillis() - origin;
+        count++;
+    }
+
+    // Logs the trace once; later marks are ignored until the next begin()
+    public synchronized void report(Context context) {
+        if (reported) return;
+        reported = true;
+
+        StringBuilder line = new StringBuilder(128);
+        line.append(cold ? "Cold" : "Warm").append(" start ").append(versionOf(context)).append(':');
+        for (int i = 0; i < count; i++) {
+            line.append(' ').append(names[i]).append('=').append(times[i]).append("ms");
+        }
+        Log.i(TAG, line.toString());
+    }
+
+    private static String versionOf(Context context) {
+        try {
+            PackageInfo info = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+            return info.versionName + " (" + PackageInfoCompat.getLongVersionCode(info) + ")";
+        } catch (PackageManager.NameNotFoundException e) {
+            return "unknown";
+        }
+    }
+}
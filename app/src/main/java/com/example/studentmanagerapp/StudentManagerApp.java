@@ -0,0 +1,13 @@
+package com.example.studentmanagerapp;
+
+import android.app.Application;
+
+public class StudentManagerApp extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // First, so every activity, including one restored after process death, runs under it
+        MainThreadGuard.install(this);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.studentmanagerapp;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.widget.ImageView;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Decodes list thumbnails off the UI thread into a memory-budgeted LRU cache.
+// Each ImageView carries its in-flight request as a tag, so a recycled row
+// never receives a bitmap meant for the buddy it showed before; the request
+// only holds the view weakly, so neither keeps the other alive. Owned by one
+// activity, which calls shutdown() when it is destroyed.
+public class ThumbnailLoader {
+
+    public interface Listener {
+        void onThumbnailLoaded(Bitmap bitmap);
+    }
+
+    private static final int DECODE_THREADS = 2;
+
+    private final PhotoStore photoStore;
+    private final LruCache<String, Bitmap> cache;
+    private final ExecutorService decodeExecutor = Executors.newFixedThreadPool(DECODE_THREADS);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public ThumbnailLoader(PhotoStore photoStore) {
+        this.photoStore = photoStore;
+
+        // An eighth of the heap is plenty for a screenful of list thumbnails plus scroll-back
+        int budgetBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8);
+        cache = new LruCache<String, Bitmap>(budgetBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+    }
+
+    // The photo key is a content hash, so it doubles as the photo version
+    public static String cacheKey(long buddyId, String photoKey) {
+        return buddyId + ":" + photoKey;
+    }
+
+    public Bitmap getCached(long buddyId, String photoKey) {
+        return cache.get(cacheKey(buddyId, photoKey));
+    }
+
+    // Main thread only
+    public void load(ImageView target, long buddyId, String photoKey, Listener listener) {
+        cancel(target);
+        if (decodeExecutor.isShutdown()) return;
+        Request request = new Request(target, cacheKey(buddyId, photoKey), photoKey, listener);
+        target.setTag(R.id.thumbnail_request, request);
+        request.future = decodeExecutor.submit(request);
+    }
+
+    // Main thread only
+    public void cancel(ImageView target) {
+        Object tag = target.getTag(R.id.thumbnail_request);
+        target.setTag(R.id.thumbnail_request, null);
+        if (tag instanceof Request) {
+            Future<?> future = ((Request) tag).future;
+            if (future != null) future.cancel(false);
+        }
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+
+    // Stops the decode threads and drops the cache; later loads are ignored
+    public void shutdown() {
+        decodeExecutor.shutdownNow();
+        cache.evictAll();
+    }
+
+    private class Request implements Runnable {
+        final WeakReference<ImageView> target;
+        final String cacheKey;
+        final String photoKey;
+        final Listener listener;
+        Future<?> future;
+
+        Request(ImageView target, String cacheKey, String photoKey, Listener listener) {
+            this.target = new WeakReference<>(target);
+            this.cacheKey = cacheKey;
+            this.photoKey = photoKey;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            Bitmap bitmap = cache.get(cacheKey);
+            if (bitmap == null) {
+                bitmap = photoStore.decode(photoKey, PhotoStore.Variant.THUMBNAIL);
+                if (bitmap == null) return;
+                cache.put(cacheKey, bitmap);
+            }
+
+            Bitmap result = bitmap;
+            mainHandler.post(() -> {
+                // Drop the result if the row was rebound, recycled or let go meanwhile
+                ImageView view = target.get();
+                if (view == null || view.getTag(R.id.thumbnail_request) != this) return;
+                view.setTag(R.id.thumbnail_request, null);
+                listener.onThumbnailLoaded(result);
+            });
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.studentmanagerapp;
+
+import android.database.sqlite.SQLiteDatabase;
+
+// Per-user counters behind the Reports screen: one row per (user, stat) for
+// the total, each gender and each birth month. Triggers on buddies adjust the
+// counters on every insert, delete and relevant update, so like the search
+// index every write path keeps them current and reads never count rows.
+public class UserStats {
+
+    public static final String TABLE = "user_stats";
+    public static final String COL_USER_ID = "user_id";
+    public static final String COL_KEY = "stat_key";
+    public static final String COL_VALUE = "value";
+
+    public static final String KEY_TOTAL = "total";
+    private static final String GENDER_PREFIX = "gender:";
+    private static final String MONTH_PREFIX = "month:";
+
+    private static final String TRIGGER_INSERT = "user_stats_ai";
+    private static final String TRIGGER_UPDATE = "user_stats_au";
+    private static final String TRIGGER_DELETE = "user_stats_ad";
+
+    public static String genderKey(String gender) {
+        return GENDER_PREFIX + (gender != null ? gender : "");
+    }
+
+    // month is 1-12
+    public static String monthKey(int month) {
+        return MONTH_PREFIX + month;
+    }
+
+    // 1-12 for a month key, 0 otherwise
+    public static int monthOf(String key) {
+        if (key == null || !key.startsWith(MONTH_PREFIX)) return 0;
+        try {
+            return Integer.parseInt(key.substring(MONTH_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public static void create(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " (" +
+                COL_USER_ID + " INTEGER NOT NULL, " +
+                COL_KEY + " TEXT NOT NULL, " +
+                COL_VALUE + " INTEGER NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (" + COL_USER_ID + ", " + COL_KEY + ")) WITHOUT ROWID");
+
+        db.execSQL("CREATE TRIGGER " + TRIGGER_INSERT + " AFTER INSERT ON " + DatabaseHelper.TABLE_BUDDIES + " BEGIN " +
+                adjust("NEW", "+ 1") + " END");
+
+        db.execSQL("CREATE TRIGGER " + TRIGGER_UPDATE + " AFTER UPDATE OF " +
+                DatabaseHelper.COL_BUDDY_GENDER + ", " + DatabaseHelper.COL_BUDDY_BIRTH_MONTH + ", " +
+                DatabaseHelper.COL_BUDDY_USER_ID + " ON " + DatabaseHelper.TABLE_BUDDIES + " BEGIN " +
+                adjust("OLD", "- 1") + " " + adjust("NEW", "+ 1") + " END");
+
+        db.execSQL("CREATE TRIGGER " + TRIGGER_DELETE + " AFTER DELETE ON " + DatabaseHelper.TABLE_BUDDIES + " BEGIN " +
+                adjust("OLD", "- 1") + " END");
+    }
+
+    // Trigger body that moves the total, gender and month counters of one row.
+    // Written as INSERT OR IGNORE plus UPDATE because UPSERT needs a newer
+    // SQLite than minSdk ships.
+    private static String adjust(String row, String delta) {
+        String user = row + "." + DatabaseHelper.COL_BUDDY_USER_ID;
+        String gender = "'" + GENDER_PREFIX + "' || ifnull(" + row + "." + DatabaseHelper.COL_BUDDY_GENDER + ", '')";
+        String month = "'" + MONTH_PREFIX + "' || " + row + "." + DatabaseHelper.COL_BUDDY_BIRTH_MONTH;
+        String hasMonth = row + "." + DatabaseHelper.COL_BUDDY_BIRTH_MONTH + " IS NOT NULL";
+        return bump(user, "'" + KEY_TOTAL + "'", delta, null) +
+                bump(user, gender, delta, null) +
+                bump(user, month, delta, hasMonth);
+    }
+
+    private static String bump(String user, String key, String delta, String condition) {
+        String where = condition != null ? " WHERE " + condition : "";
+        return "INSERT OR IGNORE INTO " + TABLE + "(" + COL_USER_ID + ", " + COL_KEY + ", " + COL_VALUE + ") " +
+                "SELECT " + user + ", " + key + ", 0" + where + "; " +
+                "UPDATE " + TABLE + " SET " + COL_VALUE + " = " + COL_VALUE + " " + delta +
+                " WHERE " + COL_USER_ID + " = " + user + " AND " + COL_KEY + " = " + key + "; ";
+    }
+
+    // Recounts every user's counters from the buddies table
+    public static void rebuild(SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + TABLE);
+        db.execSQL(rebuildSql(null));
+    }
+
+    public static void rebuild(SQLiteDatabase db, long userId) {
+        db.execSQL("DELETE FROM " + TABLE + " WHERE " + COL_USER_ID + " = ?", new Object[]{userId});
+        db.execSQL(rebuildSql(DatabaseHelper.COL_BUDDY_USER_ID + " = ?"), new Object[]{userId, userId, userId});
+    }
+
+    private static String rebuildSql(String filter) {
+        String where = filter != null ? " WHERE " + filter : "";
+        String andWhere = filter != null ? " AND " + filter : "";
+        String buddies = DatabaseHelper.TABLE_BUDDIES;
+        String userId = DatabaseHelper.COL_BUDDY_USER_ID;
+        String monthColumn = DatabaseHelper.COL_BUDDY_BIRTH_MONTH;
+        return "INSERT INTO " + TABLE + "(" + COL_USER_ID + ", " + COL_KEY + ", " + COL_VALUE + ") " +
+                "SELECT " + userId + ", '" + KEY_TOTAL + "', COUNT(*) FROM " + buddies + where +
+                " GROUP BY " + userId +
+                " UNION ALL SELECT " + userId + ", '" + GENDER_PREFIX + "' || ifnull(" + DatabaseHelper.COL_BUDDY_GENDER + ", ''), COUNT(*) FROM " +
+                buddies + where + " GROUP BY " + userId + ", ifnull(" + DatabaseHelper.COL_BUDDY_GENDER + ", '')" +
+                " UNION ALL SELECT " + userId + ", '" + MONTH_PREFIX + "' || " + monthColumn + ", COUNT(*) FROM " +
+                buddies + " WHERE " + monthColumn + " IS NOT NULL" + andWhere + " GROUP BY " + userId + ", " + monthColumn;
+    }
+}
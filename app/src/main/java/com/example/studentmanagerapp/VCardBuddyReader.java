@@ -0,0 +1,186 @@
+package com.example.studentmanagerapp;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// Streaming vCard (2.1, 3.0 and 4.0) reader for buddy imports. Reads one card
+// at a time, unfolding continuation lines, and keeps FN (or N), the first TEL
+// and EMAIL, BDAY and GENDER. Everything else on the card is skipped. vCard 2.1
+// values marked QUOTED-PRINTABLE, as older phones export non-ASCII names, are
+// joined across their soft line breaks and decoded in their CHARSET (UTF-8 when
+// none is given).
+public class VCardBuddyReader implements BuddyRecordReader {
+
+    private final BufferedReader reader;
+
+    // Reused to unfold each logical line
+    private final StringBuilder line = new StringBuilder();
+    private String lookahead;
+
+    public VCardBuddyReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public BuddyImportRecord next() throws IOException {
+        boolean inCard = false;
+        String fullName = null, structuredName = null, phone = null, email = null, birthday = null, gender = null;
+
+        String current;
+        while ((current = readUnfoldedLine()) != null) {
+            int colon = current.indexOf(':');
+            if (colon <= 0) continue;
+
+            String property = propertyName(current, colon);
+            String value = current.substring(colon + 1);
+            if (isQuotedPrintable(current, colon)) {
+                value = decodeQuotedPrintable(value, charset(current, colon));
+            }
+            value = value.trim();
+
+            if (property.equals("BEGIN") && value.equalsIgnoreCase("VCARD")) {
+                inCard = true;
+                fullName = structuredName = phone = email = birthday = gender = null;
+            } else if (!inCard) {
+                continue;
+            } else if (property.equals("END") && value.equalsIgnoreCase("VCARD")) {
+                String name = fullName != null ? fullName : structuredName;
+                return new BuddyImportRecord(name, gender, birthday, phone, email);
+            } else if (property.equals("FN")) {
+                fullName = unescape(value);
+            } else if (property.equals("N")) {
+                structuredName = structuredName(value);
+            } else if (property.equals("TEL")) {
+                if (phone == null) phone = value.startsWith("tel:") ? value.substring(4) : value;
+            } else if (property.equals("EMAIL")) {
+                if (email == null) email = unescape(value);
+            } else if (property.equals("BDAY")) {
+                birthday = value;
+            } else if (property.equals("GENDER") || property.equals("X-GENDER")) {
+                int semicolon = value.indexOf(';');
+                gender = semicolon >= 0 ? value.substring(0, semicolon) : value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // "item1.TEL;TYPE=CELL" is TEL
+    private static String propertyName(String line, int colon) {
+        int end = colon;
+        int semicolon = line.indexOf(';');
+        if (semicolon >= 0 && semicolon < end) end = semicolon;
+        String name = line.substring(0, end);
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0) name = name.substring(dot + 1);
+        return name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Parameters sit between the property name and the colon
+    private static String parameters(String line, int colon) {
+        int semicolon = line.indexOf(';');
+        return semicolon >= 0 && semicolon < colon ? line.substring(semicolon, colon).toUpperCase(Locale.ROOT) : "";
+    }
+
+    // "ENCODING=QUOTED-PRINTABLE" in 2.1, or the bare "QUOTED-PRINTABLE" type some exporters write
+    private static boolean isQuotedPrintable(String line, int colon) {
+        return parameters(line, colon).contains("QUOTED-PRINTABLE");
+    }
+
+    private static Charset charset(String line, int colon) {
+        String parameters = parameters(line, colon);
+        int start = parameters.indexOf(";CHARSET=");
+        if (start < 0) return StandardCharsets.UTF_8;
+        start += ";CHARSET=".length();
+        int end = parameters.indexOf(';', start);
+        try {
+            return Charset.forName(parameters.substring(start, end >= 0 ? end : parameters.length()));
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    // =XX escapes are bytes in the given charset; anything else is taken as it is
+    static String decodeQuotedPrintable(String value, Charset charset) {
+        if (value.indexOf('=') < 0) return value;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '=' && i + 2 < value.length() && hex(value.charAt(i + 1)) >= 0 && hex(value.charAt(i + 2)) >= 0) {
+                bytes.write(hex(value.charAt(i + 1)) << 4 | hex(value.charAt(i + 2)));
+                i += 2;
+            } else {
+                byte[] encoded = String.valueOf(ch).getBytes(charset);
+                bytes.write(encoded, 0, encoded.length);
+            }
+        }
+        return new String(bytes.toByteArray(), charset);
+    }
+
+    private static int hex(char ch) {
+        return Character.digit(ch, 16);
+    }
+
+    // N is family;given;additional;prefix;suffix
+    private static String structuredName(String value) {
+        String[] parts = value.split(";", -1);
+        String family = parts.length > 0 ? unescape(parts[0]).trim() : "";
+        String given = parts.length > 1 ? unescape(parts[1]).trim() : "";
+        if (given.isEmpty()) return family.isEmpty() ? null : family;
+        return family.isEmpty() ? given : given + " " + family;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) return value;
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(next == 'n' || next == 'N' ? ' ' : next);
+            } else {
+                out.append(ch);
+            }
+        }
+        return out.toString();
+    }
+
+    // Joins lines folded with a leading space or tab back onto the line before,
+    // and quoted-printable lines ending in a soft "=" break onto the next one
+    private String readUnfoldedLine() throws IOException {
+        String first = lookahead != null ? lookahead : reader.readLine();
+        lookahead = null;
+        if (first == null) return null;
+
+        line.setLength(0);
+        line.append(first);
+        String following;
+        while ((following = reader.readLine()) != null) {
+            if (!following.isEmpty() && (following.charAt(0) == ' ' || following.charAt(0) == '\t')) {
+                line.append(following, 1, following.length());
+            } else if (endsWithSoftBreak()) {
+                line.setLength(line.length() - 1);
+                line.append(following);
+            } else {
+                lookahead = following;
+                break;
+            }
+        }
+        return line.toString();
+    }
+
+    private boolean endsWithSoftBreak() {
+        int length = line.length();
+        if (length == 0 || line.charAt(length - 1) != '=') return false;
+        int colon = line.indexOf(":");
+        return colon > 0 && isQuotedPrintable(line.toString(), colon);
+    }
+}
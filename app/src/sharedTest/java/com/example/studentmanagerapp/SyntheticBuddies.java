@@ -0,0 +1,123 @@
+package com.example.studentmanagerapp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Deterministic fake buddies for benchmarks and load tests. The same seed
+// always produces the same sequence, so runs on different machines and
+// releases measure the same data. Shared by the JVM and instrumented tests.
+public class SyntheticBuddies {
+
+    public static final long SEED = 20240917L;
+
+    // Small, typical and heavy users
+    public static final int[] SIZES = {100, 10_000, 100_000};
+
+    private static final String[] FIRST_NAMES = {
+            "Aisyah", "Ahmad", "Mei Ling", "Ravi", "Siti", "Daniel", "Nurul", "Wei Jie", "Priya", "Hafiz",
+            "Chloe", "Arjun", "Farah", "Jun Hao", "Kavitha", "Imran", "Sarah", "Zhi Wei", "Anita", "Irfan"};
+    private static final String[] LAST_NAMES = {
+            "Abdullah", "Tan", "Lim", "Kumar", "Ismail", "Wong", "Rahman", "Lee", "Nair", "Hassan",
+            "Ng", "Pillai", "Yusof", "Chong", "Raj", "Osman", "Goh", "Menon", "Ali", "Teo"};
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    // Relative births per month with the late-summer peak seen in real populations
+    public static final int[] SEASONAL_MONTHS = {80, 74, 82, 80, 84, 84, 90, 92, 94, 88, 80, 82};
+
+    private final Random random;
+    // null for every month equally likely
+    private final int[] monthWeights;
+    private final int weightTotal;
+    private int sequence;
+
+    public SyntheticBuddies(long seed) {
+        this(seed, null);
+    }
+
+    public SyntheticBuddies(long seed, int[] monthWeights) {
+        if (monthWeights != null && monthWeights.length != 12) {
+            throw new IllegalArgumentException("Expected 12 month weights, got " + monthWeights.length);
+        }
+        random = new Random(seed);
+        this.monthWeights = monthWeights;
+        int total = 0;
+        if (monthWeights != null) {
+            for (int weight : monthWeights) total += weight;
+        }
+        weightTotal = total;
+    }
+
+    public BuddyImportRecord next() {
+        sequence++;
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        // The suffix keeps names distinct enough for prefix searches to be selective
+        String name = first + " " + last + " " + sequence;
+        String gender = random.nextBoolean() ? "Male" : "Female";
+
+        String dob = null;
+        if (random.nextInt(10) != 0) {
+            int month = nextMonth();
+            int day = 1 + random.nextInt(month == 2 ? 28 : DAYS_IN_MONTH[month - 1]);
+            dob = String.format(Locale.US, "%d-%02d-%02d", 1985 + random.nextInt(25), month, day);
+        }
+
+        String phone = String.format(Locale.US, "01%d-%07d", random.nextInt(10), random.nextInt(10_000_000));
+        String email = random.nextInt(10) < 7
+                ? first.toLowerCase(Locale.ROOT).replace(' ', '.') + sequence + "@example.com" : null;
+        return new BuddyImportRecord(name, gender, dob, phone, email);
+    }
+
+    private int nextMonth() {
+        if (monthWeights == null) return 1 + random.nextInt(12);
+        int pick = random.nextInt(weightTotal);
+        for (int month = 0; month < 12; month++) {
+            pick -= monthWeights[month];
+            if (pick < 0) return month + 1;
+        }
+        return 12;
+    }
+
+    public static List<BuddyImportRecord> generate(int count, long seed) {
+        SyntheticBuddies buddies = new SyntheticBuddies(seed);
+        List<BuddyImportRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(buddies.next());
+        }
+        return records;
+    }
+
+    // Same layout BuddyExporter writes
+    public static String toCsv(List<BuddyImportRecord> records) {
+        StringBuilder out = new StringBuilder(records.size() * 64);
+        out.append("Name,Gender,Birthday,Phone,Email\r\n");
+        for (BuddyImportRecord record : records) {
+            out.append(record.name).append(',')
+                    .append(orEmpty(record.gender)).append(',')
+                    .append(orEmpty(record.dob)).append(',')
+                    .append(orEmpty(record.phone)).append(',')
+                    .append(orEmpty(record.email)).append("\r\n");
+        }
+        return out.toString();
+    }
+
+    public static String toVCard(List<BuddyImportRecord> records) {
+        StringBuilder out = new StringBuilder(records.size() * 128);
+        for (BuddyImportRecord record : records) {
+            out.append("BEGIN:VCARD\r\nVERSION:3.0\r\n");
+            out.append("FN:").append(record.name).append("\r\n");
+            if (record.phone != null) out.append("TEL;TYPE=CELL:").append(record.phone).append("\r\n");
+            if (record.email != null) out.append("EMAIL:").append(record.email).append("\r\n");
+            if (record.dob != null) out.append("BDAY:").append(record.dob).append("\r\n");
+            if (record.gender != null) out.append("GENDER:").append(record.gender.charAt(0)).append("\r\n");
+            out.append("END:VCARD\r\n");
+        }
+        return out.toString();
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
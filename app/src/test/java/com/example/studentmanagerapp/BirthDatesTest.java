@@ -0,0 +1,41 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BirthDatesTest {
+
+    @Test
+    public void paddedDates() {
+        assertEquals(3, BirthDates.monthOf("1999-03-07"));
+        assertEquals(7, BirthDates.dayOf("1999-03-07"));
+        assertEquals(307, BirthDates.keyOf("1999-03-07"));
+    }
+
+    @Test
+    public void unpaddedAndTrimmedDatesMatchPadded() {
+        assertEquals(BirthDates.keyOf("1999-03-07"), BirthDates.keyOf("1999-3-7"));
+        assertEquals(BirthDates.keyOf("1999-03-07"), BirthDates.keyOf("  1999-3-07 "));
+        assertEquals(12, BirthDates.monthOf("2000-12-1"));
+        assertEquals(1, BirthDates.dayOf("2000-12-1"));
+    }
+
+    @Test
+    public void malformedDatesAreZero() {
+        assertEquals(0, BirthDates.keyOf((String) null));
+        assertEquals(0, BirthDates.keyOf(""));
+        assertEquals(0, BirthDates.keyOf("1999-03"));
+        assertEquals(0, BirthDates.keyOf("1999-13-01"));
+        assertEquals(0, BirthDates.keyOf("1999-02-00"));
+        assertEquals(0, BirthDates.monthOf("March 7"));
+    }
+
+    @Test
+    public void keysOrderByCalendarDay() {
+        assertTrue(BirthDates.keyOf(1, 31) < BirthDates.keyOf(2, 1));
+        assertTrue(BirthDates.keyOf(2, 29) < BirthDates.keyOf(3, 1));
+        assertTrue(BirthDates.keyOf(12, 30) < BirthDates.keyOf(12, 31));
+    }
+}
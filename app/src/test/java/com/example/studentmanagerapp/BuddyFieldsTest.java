@@ -0,0 +1,59 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class BuddyFieldsTest {
+
+    @Test
+    public void phonesGetTheCountryCodeOnce() {
+        assertEquals("+60123456789", BuddyFields.normalizePhone("012-345 6789"));
+        assertEquals("+60123456789", BuddyFields.normalizePhone("+60 12 345 6789"));
+        assertEquals("+60123456789", BuddyFields.normalizePhone("60123456789"));
+        assertEquals("", BuddyFields.normalizePhone("n/a"));
+        assertEquals("", BuddyFields.normalizePhone(null));
+    }
+
+    @Test
+    public void gendersAcceptShortAndLongForms() {
+        assertEquals("Male", BuddyFields.normalizeGender(" m "));
+        assertEquals("Male", BuddyFields.normalizeGender("MALE"));
+        assertEquals("Female", BuddyFields.normalizeGender("f"));
+        assertEquals("Female", BuddyFields.normalizeGender("Female"));
+        assertNull(BuddyFields.normalizeGender("other"));
+        assertNull(BuddyFields.normalizeGender(null));
+    }
+
+    @Test
+    public void paddedDatesAreKept() {
+        assertEquals("1999-03-07", BuddyFields.normalizeDob("1999-03-07"));
+        assertEquals("1999-03-07", BuddyFields.normalizeDob(" 1999-03-07 "));
+    }
+
+    @Test
+    public void unpaddedDatesArePadded() {
+        assertEquals("1999-03-07", BuddyFields.normalizeDob("1999-3-7"));
+        assertEquals("1999-12-01", BuddyFields.normalizeDob("1999-12-1"));
+    }
+
+    @Test
+    public void otherSeparatorsAndCompactDatesAreAccepted() {
+        assertEquals("1999-03-07", BuddyFields.normalizeDob("1999/3/7"));
+        assertEquals("1999-03-07", BuddyFields.normalizeDob("1999.03.07"));
+        assertEquals("1999-03-07", BuddyFields.normalizeDob("19990307"));
+        assertEquals("1999-03-07", BuddyFields.normalizeDob("1999-03-07T08:00:00Z"));
+    }
+
+    @Test
+    public void partialOrImpossibleDatesAreRejected() {
+        assertNull(BuddyFields.normalizeDob("07/03/1999"));
+        assertNull(BuddyFields.normalizeDob("1999-03"));
+        assertNull(BuddyFields.normalizeDob("1999-13-01"));
+        assertNull(BuddyFields.normalizeDob("1999-03-32"));
+        assertNull(BuddyFields.normalizeDob("1999-003-07"));
+        assertNull(BuddyFields.normalizeDob(""));
+        assertNull(BuddyFields.normalizeDob(null));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class BuddySearchIndexTest {
+
+    @Test
+    public void everyWordBecomesAPrefixTerm() {
+        assertEquals("tan* mei*", BuddySearchIndex.toMatchQuery("  Tan   Mei "));
+    }
+
+    @Test
+    public void punctuationInsideAWordSplitsItLikeTheTokenizer() {
+        assertEquals("o* brien*", BuddySearchIndex.toMatchQuery("O'Brien"));
+        assertEquals("siti* nur*", BuddySearchIndex.toMatchQuery("Siti-Nur"));
+        assertEquals("012* 345*", BuddySearchIndex.toMatchQuery("012-345"));
+    }
+
+    @Test
+    public void operatorsAreSearchedAsWords() {
+        assertEquals("and* or* not*", BuddySearchIndex.toMatchQuery("AND OR NOT"));
+        assertEquals("a* b*", BuddySearchIndex.toMatchQuery("\"a\" -b*"));
+    }
+
+    @Test
+    public void nothingSearchableIsNull() {
+        assertNull(BuddySearchIndex.toMatchQuery(null));
+        assertNull(BuddySearchIndex.toMatchQuery(""));
+        assertNull(BuddySearchIndex.toMatchQuery(" '-* "));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class CsvBuddyReaderTest {
+
+    @Test
+    public void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        List<BuddyImportRecord> records = read(
+                "name,gender,dob,phone,email\n" +
+                        "\"Tan, Mei Ling\",F,1999-03-07,0123456789,mei@example.com\n" +
+                        "\"Ahmad \"\"Mat\"\" Ali\",M,,,\n" +
+                        "\"Two\nLines\",,,,\n");
+
+        assertEquals(3, records.size());
+        assertEquals("Tan, Mei Ling", records.get(0).name);
+        assertEquals("Female", records.get(0).gender);
+        assertEquals("1999-03-07", records.get(0).dob);
+        assertEquals("+60123456789", records.get(0).phone);
+        assertEquals("mei@example.com", records.get(0).email);
+        assertEquals("Ahmad \"Mat\" Ali", records.get(1).name);
+        assertEquals("Two\nLines", records.get(2).name);
+    }
+
+    @Test
+    public void crlfBomAndBlankLinesAreNotData() throws IOException {
+        List<BuddyImportRecord> records = read(
+                "\uFEFFName,Email\r\n\r\nAlice,alice@example.com\r\n,\r\nBob,bob@example.com");
+
+        assertEquals(2, records.size());
+        assertEquals("Alice", records.get(0).name);
+        assertEquals("alice@example.com", records.get(0).email);
+        assertEquals("Bob", records.get(1).name);
+        assertEquals("bob@example.com", records.get(1).email);
+    }
+
+    @Test
+    public void headerColumnsAreMatchedByName() throws IOException {
+        List<BuddyImportRecord> records = read(
+                "Given Name,Family Name,Phone 1 - Type,Phone 1 - Value,Birthday\n" +
+                        "Siti,Aminah,Mobile,+60 12-345 6789,2001/12/31\n");
+
+        assertEquals(1, records.size());
+        assertEquals("Siti Aminah", records.get(0).name);
+        assertEquals("+60123456789", records.get(0).phone);
+        assertEquals("2001-12-31", records.get(0).dob);
+    }
+
+    @Test
+    public void fileWithoutHeaderUsesDefaultColumnOrder() throws IOException {
+        List<BuddyImportRecord> records = read("Alice,female,2000-1-5,0111,alice@example.com\n");
+
+        assertEquals(1, records.size());
+        assertEquals("Alice", records.get(0).name);
+        assertEquals("Female", records.get(0).gender);
+        assertEquals("2000-01-05", records.get(0).dob);
+        assertEquals("alice@example.com", records.get(0).email);
+    }
+
+    @Test
+    public void missingTrailingColumnsAreNull() throws IOException {
+        List<BuddyImportRecord> records = read("name,gender,dob,phone,email\nAlice\n");
+
+        assertEquals(1, records.size());
+        assertNull(records.get(0).gender);
+        assertNull(records.get(0).dob);
+        assertNull(records.get(0).phone);
+        assertNull(records.get(0).email);
+    }
+
+    private static List<BuddyImportRecord> read(String csv) throws IOException {
+        List<BuddyImportRecord> records = new ArrayList<>();
+        try (CsvBuddyReader reader = new CsvBuddyReader(new StringReader(csv))) {
+            BuddyImportRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FrameMonitorTest {
+
+    private static long ms(double millis) {
+        return (long) (millis * 1_000_000L);
+    }
+
+    @Test
+    public void shortFramesGetOneMillisecondBuckets() {
+        assertEquals(0, FrameMonitor.bucketOf(ms(0.4)));
+        assertEquals(16, FrameMonitor.bucketOf(ms(16.6)));
+        assertEquals(33, FrameMonitor.bucketOf(ms(33.4)));
+        assertEquals(99, FrameMonitor.bucketOf(ms(99.9)));
+    }
+
+    @Test
+    public void longFramesGetFiftyMillisecondBuckets() {
+        assertEquals(100, FrameMonitor.bucketOf(ms(100)));
+        assertEquals(100, FrameMonitor.bucketOf(ms(149)));
+        assertEquals(101, FrameMonitor.bucketOf(ms(150)));
+        assertEquals(150, FrameMonitor.bucketStartMs(101));
+    }
+
+    @Test
+    public void veryLongFramesShareTheOverflowBucket() {
+        int overflow = FrameMonitor.bucketOf(ms(60_000));
+        assertEquals(overflow, FrameMonitor.bucketOf(ms(2_000)));
+        assertTrue(FrameMonitor.bucketOf(ms(999)) < overflow);
+    }
+
+    @Test
+    public void bucketStartsRoundTrip() {
+        for (int bucket = 0; bucket < FrameMonitor.bucketOf(ms(60_000)); bucket++) {
+            assertEquals(bucket, FrameMonitor.bucketOf(ms(FrameMonitor.bucketStartMs(bucket))));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.studentmanagerapp;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// A small JMH-style harness for the pure-Java hot paths, runnable in the plain
+// JVM unit-test task. Each benchmark is calibrated so one timed iteration
+// lasts about ITERATION_NS, run for WARMUP_ITERATIONS untimed and then
+// MEASURED_ITERATIONS timed, and reported as nanoseconds per operation.
+// Results are collected per class and written as JSON for trend tracking.
+//
+// Benchmarks only run when the build passes -Pbenchmark, so the normal unit
+// test run stays fast:
+//   ./gradlew :app:testDebugUnitTest -Pbenchmark --tests '*Benchmark'
+public class MicroBenchmark {
+
+    private static final long ITERATION_NS = 100_000_000L;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    // Benchmarked values are stored here so the JIT cannot drop the work
+    private static volatile Object sink;
+
+    public interface Op {
+        Object run() throws Exception;
+    }
+
+    public static class Result {
+        public final String name;
+        public final int size;
+        public final long opsPerIteration;
+        public final double[] nsPerOp;
+
+        Result(String name, int size, long opsPerIteration, double[] nsPerOp) {
+            this.name = name;
+            this.size = size;
+            this.opsPerIteration = opsPerIteration;
+            this.nsPerOp = nsPerOp;
+        }
+
+        public double min() {
+            return percentile(0);
+        }
+
+        public double median() {
+            return percentile(50);
+        }
+
+        public double p90() {
+            return percentile(90);
+        }
+
+        private double percentile(int percent) {
+            double[] sorted = nsPerOp.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    private final String suite;
+    private final List<Result> results = new ArrayList<>();
+
+    public MicroBenchmark(String suite) {
+        this.suite = suite;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("benchmark");
+    }
+
+    public synchronized Result measure(String name, int size, Op op) throws Exception {
+        long ops = calibrate(op);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(op, ops);
+        }
+        double[] samples = new double[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            samples[i] = (double) runIteration(op, ops) / ops;
+        }
+
+        Result result = new Result(name, size, ops, samples);
+        results.add(result);
+        System.out.println(String.format(Locale.US, "%s.%s[%d]: median %.1f ns/op, p90 %.1f ns/op",
+                suite, name, size, result.median(), result.p90()));
+        return result;
+    }
+
+    // Doubles the batch until it fills a meaningful slice of ITERATION_NS
+    private static long calibrate(Op op) throws Exception {
+        long ops = 1;
+        while (true) {
+            long elapsed = runIteration(op, ops);
+            if (elapsed >= ITERATION_NS / 10 || ops >= (1L << 30)) {
+                return Math.max(1, ops * ITERATION_NS / Math.max(1, elapsed));
+            }
+            ops *= 2;
+        }
+    }
+
+    private static long runIteration(Op op, long ops) throws Exception {
+        long start = System.nanoTime();
+        for (long i = 0; i < ops; i++) {
+            sink = op.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Written to build/benchmarks/<suite>.json unless benchmark.outputDir says otherwise
+    public synchronized File writeJson() throws IOException {
+        File dir = new File(System.getProperty("benchmark.outputDir", "build/benchmarks"));
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        File file = new File(dir, suite + ".json");
+
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            out.write("{\n  \"suite\": \"" + suite + "\",\n");
+            out.write("  \"timestamp\": " + System.currentTimeMillis() + ",\n");
+            out.write("  \"jvm\": \"" + System.getProperty("java.vm.name") + " " + System.getProperty("java.version") + "\",\n");
+            out.write("  \"benchmarks\": [");
+            for (int i = 0; i < results.size(); i++) {
+                Result result = results.get(i);
+                out.write(i == 0 ? "\n" : ",\n");
+                out.write(String.format(Locale.US,
+                        "    {\"name\": \"%s\", \"size\": %d, \"opsPerIteration\": %d, " +
+                                "\"minNs\": %.1f, \"medianNs\": %.1f, \"p90Ns\": %.1f, \"samplesNs\": [",
+                        result.name, result.size, result.opsPerIteration,
+                        result.min(), result.median(), result.p90()));
+                for (int j = 0; j < result.nsPerOp.length; j++) {
+                    if (j > 0) out.write(", ");
+                    out.write(String.format(Locale.US, "%.1f", result.nsPerOp[j]));
+                }
+                out.write("]}");
+            }
+            out.write("\n  ]\n}\n");
+        }
+        return file;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+// JVM benchmarks for the code that runs per buddy without touching Android:
+// import parsing and normalisation, the birthday ordering the upcoming
+// birthday card relies on, and chart downsampling. Each runs against the
+// seeded 100 / 10k / 100k datasets.
+@RunWith(Parameterized.class)
+public class PureLogicBenchmark {
+
+    private static final MicroBenchmark bench = new MicroBenchmark("PureLogicBenchmark");
+
+    // Points a full-width chart keeps after downsampling
+    private static final int CHART_POINTS = 300;
+
+    @Parameterized.Parameters(name = "{0} buddies")
+    public static Collection<Object[]> sizes() {
+        List<Object[]> sizes = new ArrayList<>();
+        for (int size : SyntheticBuddies.SIZES) {
+            sizes.add(new Object[]{size});
+        }
+        return sizes;
+    }
+
+    private final int size;
+    private List<BuddyImportRecord> records;
+
+    public PureLogicBenchmark(int size) {
+        this.size = size;
+    }
+
+    @Before
+    public void setUp() {
+        assumeTrue("Run with -Pbenchmark", MicroBenchmark.isEnabled());
+        records = SyntheticBuddies.generate(size, SyntheticBuddies.SEED);
+    }
+
+    @AfterClass
+    public static void writeResults() throws Exception {
+        if (MicroBenchmark.isEnabled()) bench.writeJson();
+    }
+
+    @Test
+    public void csvImportParse() throws Exception {
+        String csv = SyntheticBuddies.toCsv(records);
+        bench.measure("csvImportParse", size, () -> {
+            int count = 0;
+            try (CsvBuddyReader reader = new CsvBuddyReader(new StringReader(csv))) {
+                while (reader.next() != null) count++;
+            }
+            return count;
+        });
+    }
+
+    @Test
+    public void vCardImportParse() throws Exception {
+        String vcard = SyntheticBuddies.toVCard(records);
+        bench.measure("vCardImportParse", size, () -> {
+            int count = 0;
+            try (VCardBuddyReader reader = new VCardBuddyReader(new BufferedReader(new StringReader(vcard)))) {
+                while (reader.next() != null) count++;
+            }
+            return count;
+        });
+    }
+
+    @Test
+    public void normaliseFields() throws Exception {
+        bench.measure("normaliseFields", size, () -> {
+            int valid = 0;
+            for (BuddyImportRecord record : records) {
+                if (BuddyFields.normalizeDob(record.dob) != null) valid++;
+                if (!BuddyFields.normalizePhone(record.phone).isEmpty()) valid++;
+            }
+            return valid;
+        });
+    }
+
+    // What the upcoming birthday card did before birth_key was indexed: a new
+    // SimpleDateFormat and Calendar per row to parse the date, move it into
+    // the current year and measure the distance from today, plus formatting
+    // the winner's date each time it changed
+    @Test
+    public void upcomingBirthdayScanLegacy() throws Exception {
+        Calendar today = Calendar.getInstance();
+        today.set(2024, Calendar.JUNE, 15, 0, 0, 0);
+        today.set(Calendar.MILLISECOND, 0);
+        int currentYear = today.get(Calendar.YEAR);
+        bench.measure("upcomingBirthdayScanLegacy", size, () -> {
+            long minDays = Long.MAX_VALUE;
+            String closestDate = null;
+            for (BuddyImportRecord record : records) {
+                try {
+                    Date dob = new SimpleDateFormat("yyyy-MM-dd", Locale.US).parse(record.dob);
+                    Calendar dobCal = Calendar.getInstance();
+                    if (dob != null) dobCal.setTime(dob);
+                    dobCal.set(Calendar.YEAR, currentYear);
+                    if (dobCal.before(today)) dobCal.add(Calendar.YEAR, 1);
+                    long days = (dobCal.getTimeInMillis() - today.getTimeInMillis()) / (24 * 60 * 60 * 1000);
+                    if (days < minDays) {
+                        minDays = days;
+                        closestDate = new SimpleDateFormat("MMMM d", Locale.US).format(dobCal.getTime());
+                    }
+                } catch (ParseException | NullPointerException e) {
+                    // Rows without a usable date were skipped
+                }
+            }
+            return closestDate != null ? minDays : -1;
+        });
+    }
+
+    // The same answer from the precomputed day-of-year key, with no date objects per row
+    @Test
+    public void upcomingBirthdayScanKeyed() throws Exception {
+        int todayKey = BirthDates.keyOf(6, 15);
+        bench.measure("upcomingBirthdayScanKeyed", size, () -> {
+            int best = Integer.MAX_VALUE;
+            for (BuddyImportRecord record : records) {
+                int key = BirthDates.keyOf(record.dob);
+                if (key == 0) continue;
+                // Birthdays before today come round next year
+                int distance = key >= todayKey ? key - todayKey : key + 1300 - todayKey;
+                if (distance < best) best = distance;
+            }
+            return best;
+        });
+    }
+
+    @Test
+    public void downsampleLttb() throws Exception {
+        ChartSeries in = series();
+        ChartSeries out = new ChartSeries(CHART_POINTS);
+        bench.measure("downsampleLttb", size, () -> {
+            SeriesDownsampler.downsample(in, CHART_POINTS, SeriesDownsampler.Mode.LTTB, out);
+            return out.size();
+        });
+    }
+
+    @Test
+    public void downsampleBucketSum() throws Exception {
+        ChartSeries in = series();
+        ChartSeries out = new ChartSeries(CHART_POINTS);
+        bench.measure("downsampleBucketSum", size, () -> {
+            SeriesDownsampler.downsample(in, CHART_POINTS, SeriesDownsampler.Mode.BUCKET_SUM, out);
+            return out.size();
+        });
+    }
+
+    // One point per buddy, valued by birth day, as a stand-in for a long time series
+    private ChartSeries series() {
+        ChartSeries series = new ChartSeries(size);
+        for (BuddyImportRecord record : records) {
+            series.add(BirthDates.dayOf(record.dob), null, 0);
+        }
+        return series;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SearchSchedulerTest {
+
+    // Main thread with a hand-driven clock
+    private static class FakeMainThread implements SearchScheduler.MainThread {
+        private static class Task {
+            final Runnable runnable;
+            final long at;
+
+            Task(Runnable runnable, long at) {
+                this.runnable = runnable;
+                this.at = at;
+            }
+        }
+
+        private final List<Task> tasks = new ArrayList<>();
+        private long now;
+
+        @Override
+        public boolean isCurrent() {
+            return true;
+        }
+
+        @Override
+        public void post(Runnable task) {
+            postDelayed(task, 0);
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            tasks.add(new Task(task, now + delayMs));
+        }
+
+        @Override
+        public void remove(Runnable task) {
+            Iterator<Task> it = tasks.iterator();
+            while (it.hasNext()) {
+                if (it.next().runnable == task) it.remove();
+            }
+        }
+
+        // Runs everything due by now + ms, in time order
+        void advance(long ms) {
+            long until = now + ms;
+            while (true) {
+                Task next = null;
+                for (Task task : tasks) {
+                    if (task.at <= until && (next == null || task.at < next.at)) next = task;
+                }
+                if (next == null) break;
+                tasks.remove(next);
+                now = Math.max(now, next.at);
+                next.runnable.run();
+            }
+            now = until;
+        }
+    }
+
+    // Executor whose tasks run only when the test says so
+    private final Queue<Runnable> executorQueue = new ArrayDeque<>();
+    private final FakeMainThread mainThread = new FakeMainThread();
+    private final List<String> delivered = new ArrayList<>();
+    private final List<String> queried = new ArrayList<>();
+    private final List<RuntimeException> failures = new ArrayList<>();
+    private SearchScheduler<String> scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new SearchScheduler<>(executorQueue::add, delivered::add, failures::add, mainThread);
+    }
+
+    private SearchScheduler.Query<String> query(String term) {
+        return signal -> {
+            queried.add(term);
+            return term;
+        };
+    }
+
+    private SearchScheduler.Query<String> failing(RuntimeException e) {
+        return signal -> {
+            throw e;
+        };
+    }
+
+    private void runExecutor() {
+        Runnable task;
+        while ((task = executorQueue.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void burstOfKeystrokesRunsOnlyTheLastQuery() {
+        scheduler.schedule(query("a"), 250);
+        mainThread.advance(100);
+        scheduler.schedule(query("al"), 250);
+        mainThread.advance(100);
+        scheduler.schedule(query("ali"), 250);
+
+        mainThread.advance(249);
+        assertEquals(0, executorQueue.size());
+
+        mainThread.advance(1);
+        runExecutor();
+        mainThread.advance(0);
+
+        assertEquals(List.of("ali"), queried);
+        assertEquals(List.of("ali"), delivered);
+        assertEquals(3, scheduler.getRequestedCount());
+        assertEquals(1, scheduler.getIssuedCount());
+    }
+
+    @Test
+    public void queryStillQueuedWhenSupersededNeverRuns() {
+        scheduler.schedule(query("old"), 0);
+        scheduler.schedule(query("new"), 0);
+        runExecutor();
+        mainThread.advance(0);
+
+        assertEquals(List.of("new"), queried);
+        assertEquals(List.of("new"), delivered);
+    }
+
+    @Test
+    public void resultFinishedAfterANewerRequestIsDropped() {
+        scheduler.schedule(query("old"), 0);
+        // The old query runs and its result is posted, then a newer request arrives
+        executorQueue.poll().run();
+        scheduler.schedule(query("new"), 0);
+        runExecutor();
+        mainThread.advance(0);
+
+        assertEquals(List.of("old", "new"), queried);
+        assertEquals(List.of("new"), delivered);
+    }
+
+    @Test
+    public void resultsArriveInRequestOrder() {
+        scheduler.schedule(query("first"), 0);
+        runExecutor();
+        mainThread.advance(0);
+        scheduler.schedule(query("second"), 0);
+        runExecutor();
+        mainThread.advance(0);
+
+        assertEquals(List.of("first", "second"), delivered);
+        assertEquals(2, scheduler.getDeliveredCount());
+    }
+
+    @Test
+    public void cancelDropsPendingAndInFlightWork() {
+        scheduler.schedule(query("debounced"), 250);
+        scheduler.cancel();
+        mainThread.advance(500);
+
+        scheduler.schedule(query("running"), 0);
+        scheduler.cancel();
+        runExecutor();
+        mainThread.advance(0);
+
+        assertEquals(0, delivered.size());
+    }
+
+    @Test
+    public void queryThatThrowsIsReportedOnTheMainThread() {
+        IllegalStateException error = new IllegalStateException("database closed");
+        scheduler.schedule(failing(error), 0);
+        runExecutor();
+
+        // Nothing is reported until the main thread runs
+        assertEquals(0, failures.size());
+        mainThread.advance(0);
+
+        assertEquals(List.of(error), failures);
+        assertEquals(0, delivered.size());
+        assertEquals(1, scheduler.getFailedCount());
+    }
+
+    @Test
+    public void failureOfASupersededQueryIsDropped() {
+        scheduler.schedule(failing(new IllegalStateException("stale")), 0);
+        executorQueue.poll().run();
+        scheduler.schedule(query("new"), 0);
+        runExecutor();
+        mainThread.advance(0);
+
+        assertEquals(0, failures.size());
+        assertEquals(List.of("new"), delivered);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SeriesDownsamplerTest {
+
+    @Test
+    public void shortSeriesIsCopied() {
+        ChartSeries in = series(5);
+        ChartSeries out = new ChartSeries();
+        SeriesDownsampler.downsample(in, 10, SeriesDownsampler.Mode.LTTB, out);
+
+        assertEquals(5, out.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(in.getValue(i), out.getValue(i), 0f);
+        }
+    }
+
+    @Test
+    public void lttbKeepsBothEndpoints() {
+        ChartSeries in = series(1000);
+        ChartSeries out = new ChartSeries();
+        SeriesDownsampler.downsample(in, 50, SeriesDownsampler.Mode.LTTB, out);
+
+        assertEquals(50, out.size());
+        assertEquals(in.getLabel(0), out.getLabel(0));
+        assertEquals(in.getValue(0), out.getValue(0), 0f);
+        assertEquals(in.getLabel(999), out.getLabel(49));
+        assertEquals(in.getValue(999), out.getValue(49), 0f);
+    }
+
+    @Test
+    public void lttbKeepsAPeak() {
+        ChartSeries in = new ChartSeries();
+        for (int i = 0; i < 1000; i++) {
+            in.add(i == 500 ? 1000f : 1f, String.valueOf(i), 0);
+        }
+        ChartSeries out = new ChartSeries();
+        SeriesDownsampler.downsample(in, 20, SeriesDownsampler.Mode.LTTB, out);
+
+        boolean peakKept = false;
+        for (int i = 0; i < out.size(); i++) {
+            if (out.getValue(i) == 1000f) peakKept = true;
+        }
+        assertTrue(peakKept);
+    }
+
+    @Test
+    public void lttbPointsStayInOrder() {
+        ChartSeries in = series(1000);
+        ChartSeries out = new ChartSeries();
+        SeriesDownsampler.downsample(in, 37, SeriesDownsampler.Mode.LTTB, out);
+
+        for (int i = 1; i < out.size(); i++) {
+            assertTrue(Integer.parseInt(out.getLabel(i)) > Integer.parseInt(out.getLabel(i - 1)));
+        }
+    }
+
+    @Test
+    public void bucketSumKeepsTheTotalAndFirstLabel() {
+        ChartSeries in = series(1001);
+        ChartSeries out = new ChartSeries();
+        SeriesDownsampler.downsample(in, 100, SeriesDownsampler.Mode.BUCKET_SUM, out);
+
+        assertTrue(out.size() <= 100);
+        assertEquals(in.total(), out.total(), 1e-3f * in.total());
+        assertEquals(in.getLabel(0), out.getLabel(0));
+    }
+
+    @Test
+    public void tooFewPointsForLttbKeepsTheStart() {
+        ChartSeries in = series(10);
+        ChartSeries out = new ChartSeries();
+        SeriesDownsampler.downsample(in, 2, SeriesDownsampler.Mode.LTTB, out);
+
+        assertEquals(2, out.size());
+        assertEquals(in.getLabel(0), out.getLabel(0));
+    }
+
+    // Labels are the indexes, values a zig-zag so no two neighbours are equal
+    private static ChartSeries series(int size) {
+        ChartSeries series = new ChartSeries(size);
+        for (int i = 0; i < size; i++) {
+            series.add((i % 7) * 3f + (i % 2), String.valueOf(i), 0);
+        }
+        return series;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.studentmanagerapp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class VCardBuddyReaderTest {
+
+    @Test
+    public void escapedCharactersAreUnescaped() throws IOException {
+        List<BuddyImportRecord> records = read(
+                "BEGIN:VCARD\n" +
+                        "VERSION:3.0\n" +
+                        "FN:Tan\\, Mei Ling\\; Jr\\\\\n" +
+                        "EMAIL;TYPE=HOME:mei\\,ling@example.com\n" +
+                        "END:VCARD\n");
+
+        assertEquals(1, records.size());
+        assertEquals("Tan, Mei Ling; Jr\\", records.get(0).name);
+        assertEquals("mei,ling@example.com", records.get(0).email);
+    }
+
+    @Test
+    public void escapedNewlineBecomesSpace() throws IOException {
+        List<BuddyImportRecord> records = read("BEGIN:VCARD\nFN:Two\\nLines\nEND:VCARD\n");
+
+        assertEquals("Two Lines", records.get(0).name);
+    }
+
+    @Test
+    public void foldedLinesAreJoined() throws IOException {
+        List<BuddyImportRecord> records = read(
+                "BEGIN:VCARD\n" +
+                        "FN:Nur\n" +
+                        " ul Huda\n" +
+                        "EMAIL:nurul@exa\n" +
+                        "\tmple.com\n" +
+                        "END:VCARD\n");
+
+        assertEquals("Nurul Huda", records.get(0).name);
+        assertEquals("nurul@example.com", records.get(0).email);
+    }
+
+    @Test
+    public void quotedPrintableValuesAreDecoded() throws IOException {
+        List<BuddyImportRecord> records = read(
+                "BEGIN:VCARD\n" +
+                        "VERSION:2.1\n" +
+                        "FN;CHARSET=UTF-8;ENCODING=QUOTED-PRINTABLE:Ren=C3=A9e =\n" +
+                        "Tan\n" +
+                        "EMAIL;INTERNET;QUOTED-PRINTABLE:ren=\n" +
+                        "ee=40example.com\n" +
+                        "END:VCARD\n" +
+                        "BEGIN:VCARD\n" +
+                        "N;CHARSET=ISO-8859-1;ENCODING=QUOTED-PRINTABLE:M=FCller;J=F6rg;;;\n" +
+                        "END:VCARD\n");
+
+        assertEquals(2, records.size());
+        assertEquals("Renée Tan", records.get(0).name);
+        assertEquals("renee@example.com", records.get(0).email);
+        assertEquals("Jörg Müller", records.get(1).name);
+    }
+
+    @Test
+    public void structuredNameIsUsedWithoutFn() throws IOException {
+        List<BuddyImportRecord> records = read(
+                "BEGIN:VCARD\n" +
+                        "N:Lim;Wei;;;\n" +
+                        "item1.TEL;TYPE=CELL:tel:+60-12-345-6789\n" +
+                        "TEL:0199999999\n" +
+                        "BDAY:1998-7-4\n" +
+                        "GENDER:M;he/him\n" +
+                        "END:VCARD\n");
+
+        BuddyImportRecord record = records.get(0);
+        assertEquals("Wei Lim", record.name);
+        // The first TEL wins
+        assertEquals("+60123456789", record.phone);
+        assertEquals("1998-07-04", record.dob);
+        assertEquals("Male", record.gender);
+    }
+
+    @Test
+    public void linesOutsideCardsAreIgnored() throws IOException {
+        List<BuddyImportRecord> records = read(
+                "FN:Stray\n" +
+                        "BEGIN:VCARD\nFN:First\nEND:VCARD\n" +
+                        "BEGIN:VCARD\nFN:Second\nEND:VCARD\n");
+
+        assertEquals(2, records.size());
+        assertEquals("First", records.get(0).name);
+        assertEquals("Second", records.get(1).name);
+        assertNull(records.get(1).email);
+    }
+
+    private static List<BuddyImportRecord> read(String vcard) throws IOException {
+        List<BuddyImportRecord> records = new ArrayList<>();
+        try (VCardBuddyReader reader = new VCardBuddyReader(new BufferedReader(new StringReader(vcard)))) {
+            BuddyImportRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}